@@ -0,0 +1,101 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Builds game state for the benchmark workloads from the game's own configuration
+ * files, with drawing switched off so only the simulation is measured.
+ */
+final class BenchWorlds {
+    private static final double TILE = 16;  // Placements on this grid fit the wall and river tile layers
+
+    /** Input with nothing held or pressed and the mouse at the origin */
+    static final GameInput IDLE = new GameInput() {
+        @Override
+        public boolean isDown(Keys key) {
+            return false;
+        }
+
+        @Override
+        public boolean wasPressed(Keys key) {
+            return false;
+        }
+
+        @Override
+        public boolean isDown(MouseButtons button) {
+            return false;
+        }
+
+        @Override
+        public double getMouseX() {
+            return 0;
+        }
+
+        @Override
+        public double getMouseY() {
+            return 0;
+        }
+    };
+
+    private BenchWorlds() {
+    }
+
+    /**
+     * This method reads the game properties, for a workload to adjust before building its config.
+     *
+     * @return The contents of res/app.properties
+     */
+    static Properties gameProperties() {
+        return IOUtils.readPropertiesFile("res/app.properties");
+    }
+
+    /**
+     * This method builds a configuration and switches drawing off.
+     *
+     * @param gameProps The game properties
+     * @return The parsed configuration
+     */
+    static GameConfig config(Properties gameProps) {
+        RenderQueue.setEnabled(false);
+        return new GameConfig(gameProps, IOUtils.readPropertiesFile("res/message.properties"));
+    }
+
+    /**
+     * This method builds battle room A of a world with the world's player in it.
+     *
+     * @param world The world the room belongs to
+     * @return The room
+     */
+    static BattleRoom battleRoom(World world) {
+        BattleRoom room = new BattleRoom(world, world.config.rooms.idOf("A"));
+        room.initEntities(world.config);
+        room.setPlayer(world.getPlayer());
+        return room;
+    }
+
+    /**
+     * This method builds a property value of random placements inside a margin of the window.
+     * Half the placements are on the tile grid and half are anywhere.
+     *
+     * @param random The source of positions
+     * @param count  The number of placements
+     * @param suffix Text appended to each placement, such as ",50" for a coin value, or ""
+     * @return The placements as "x,y;x,y;...", or "0" for none
+     */
+    static String placements(Random random, int count, String suffix) {
+        if (count == 0) return "0";
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double x = 96 + random.nextDouble() * 832;
+            double y = 96 + random.nextDouble() * 576;
+            if (i % 2 == 0) {
+                x = Math.floor(x / TILE) * TILE;
+                y = Math.floor(y / TILE) * TILE;
+            }
+            if (i > 0) value.append(';');
+            value.append(x).append(',').append(y).append(suffix);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,38 @@
+import java.util.Properties;
+import shadowdungeon.bench.Workload;
+
+/**
+ * Bullet.updateAll with a fixed number of bullets in flight from the player,
+ * fanned out in every direction across battle room A.
+ */
+public class BulletUpdateWorkload implements Workload {
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
+    private World world;
+    private BattleRoom room;
+    private Player player;
+    private int count;
+    private int spawned = 0;
+
+    @Override
+    public void setUp(int size) {
+        Properties props = BenchWorlds.gameProperties();
+        props.setProperty("bulletPoolCapacity", Integer.toString(size));
+        world = new World(BenchWorlds.config(props));
+        room = BenchWorlds.battleRoom(world);
+        player = world.getPlayer();
+        count = size;
+    }
+
+    @Override
+    public long run() {
+        ProjectileStore store = world.projectiles;
+        while (store.liveCount(ProjectileStore.BULLET) < count) {
+            double angle = spawned++ * GOLDEN_ANGLE;
+            store.spawn(ProjectileStore.BULLET, player.getX(), player.getY(),
+                    player.getX() + Math.cos(angle), player.getY() + Math.sin(angle), player.getWeaponDamage());
+        }
+        Bullet.updateAll(player, room);
+        return store.liveCount(ProjectileStore.BULLET);
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.Properties;
+import shadowdungeon.bench.Workload;
+
+/**
+ * Fireball.updateAll with a fixed number of fireballs in flight, fired at the
+ * player from a ring around it in battle room A. The player cannot die.
+ */
+public class FireballUpdateWorkload implements Workload {
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+    private static final double RING_RADIUS = 300;
+
+    private World world;
+    private BattleRoom room;
+    private Player player;
+    private int count;
+    private int spawned = 0;
+
+    @Override
+    public void setUp(int size) {
+        Properties props = BenchWorlds.gameProperties();
+        props.setProperty("fireballPoolCapacity", Integer.toString(size));
+        world = new World(BenchWorlds.config(props));
+        room = BenchWorlds.battleRoom(world);
+        player = world.getPlayer();
+        player.addHealth(Double.MAX_VALUE / 2);
+        count = size;
+    }
+
+    @Override
+    public long run() {
+        while (world.projectiles.liveCount(ProjectileStore.FIREBALL) < count) {
+            double angle = spawned++ * GOLDEN_ANGLE;
+            Fireball.spawn(world, player.getX() + Math.cos(angle) * RING_RADIUS,
+                    player.getY() + Math.sin(angle) * RING_RADIUS, player.getX(), player.getY());
+        }
+        Fireball.updateAll(player, room);
+        return world.projectiles.liveCount(ProjectileStore.FIREBALL);
+    }
+}
@@ -0,0 +1,50 @@
+import bagel.util.Point;
+import java.util.Random;
+import shadowdungeon.bench.Workload;
+
+/**
+ * EntityStore.hasCollidedWith for scattered tables, baskets and treasure boxes
+ * against a player that walks a loop through them.
+ */
+public class PlayerCollisionWorkload implements Workload {
+    private static final int PATH_LENGTH = 64;
+
+    private final EntityStore entities = new EntityStore();
+    private Player player;
+    private final double[] pathX = new double[PATH_LENGTH];
+    private final double[] pathY = new double[PATH_LENGTH];
+    private int step = 0;
+
+    @Override
+    public void setUp(int size) {
+        World world = new World(BenchWorlds.config(BenchWorlds.gameProperties()));
+        player = world.getPlayer();
+
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            Point position = new Point(random.nextDouble() * world.screenWidth, random.nextDouble() * world.screenHeight);
+            switch (i % 3) {
+                case 0 -> Archetypes.table(entities, position);
+                case 1 -> Archetypes.basket(entities, position, world.config.basketCoin);
+                default -> Archetypes.treasureBox(entities, position, 0);
+            }
+        }
+        for (int i = 0; i < PATH_LENGTH; i++) {
+            double angle = 2 * Math.PI * i / PATH_LENGTH;
+            pathX[i] = world.screenWidth / 2 + Math.cos(angle) * world.screenWidth / 3;
+            pathY[i] = world.screenHeight / 2 + Math.sin(angle) * world.screenHeight / 3;
+        }
+    }
+
+    @Override
+    public long run() {
+        step = (step + 1) % PATH_LENGTH;
+        player.teleport(pathX[step], pathY[step]);
+
+        long hits = 0;
+        for (int id = 0; id < entities.size(); id++) {
+            if (entities.hasCollidedWith(id, player)) hits++;
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,56 @@
+import java.util.Properties;
+import java.util.Random;
+import shadowdungeon.bench.Workload;
+
+/**
+ * The collision half of Bullet.updateAll and Fireball.updateAll: checkCollision
+ * for bullets and fireballs held in the world's ProjectileStore, scattered
+ * across battle room A with its enemies awake. Projectiles are not moved or
+ * removed, so every run checks the same positions. Enemies and the player
+ * cannot die; tables that bullets break on the first run stay in the obstacle
+ * grid as broken props, as they do in the game.
+ */
+public class ProjectileCollisionWorkload implements Workload {
+    private World world;
+    private BattleRoom room;
+    private Player player;
+
+    @Override
+    public void setUp(int size) {
+        Properties props = BenchWorlds.gameProperties();
+        props.setProperty("bulletPoolCapacity", Integer.toString(size));
+        props.setProperty("fireballPoolCapacity", Integer.toString(size));
+        for (String key : new String[]{"bulletKinHealth", "ashenBulletKinHealth", "keyBulletKinHealth",
+                "chaserBulletKinHealth"}) {
+            props.setProperty(key, "1e300");
+        }
+        world = new World(BenchWorlds.config(props));
+        room = BenchWorlds.battleRoom(world);
+        EntitySystems.activateEnemies(room);
+        player = world.getPlayer();
+        player.addHealth(Double.MAX_VALUE / 2);
+
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            for (int type : new int[]{ProjectileStore.BULLET, ProjectileStore.FIREBALL}) {
+                double x = random.nextDouble() * world.screenWidth;
+                double y = random.nextDouble() * world.screenHeight;
+                world.projectiles.spawn(type, x, y, x + 1, y, type == ProjectileStore.BULLET
+                        ? player.getWeaponDamage() : world.config.fireballDamage);
+            }
+        }
+    }
+
+    @Override
+    public long run() {
+        ProjectileStore store = world.projectiles;
+        long hits = 0;
+        for (int i = 0; i < store.size(); i++) {
+            boolean hit = store.type[i] == ProjectileStore.BULLET
+                    ? Bullet.checkCollision(store, i, player, room)
+                    : Fireball.checkCollision(store, i, player, room);
+            if (hit) hits++;
+        }
+        return hits;
+    }
+}
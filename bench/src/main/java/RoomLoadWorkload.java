@@ -0,0 +1,32 @@
+import java.util.Properties;
+import java.util.Random;
+import shadowdungeon.bench.Workload;
+
+/**
+ * BattleRoom.initEntities for battle room A rebuilt from a generated configuration
+ * of walls, river tiles, props, treasure boxes and enemies.
+ */
+public class RoomLoadWorkload implements Workload {
+    private World world;
+
+    @Override
+    public void setUp(int size) {
+        Random random = new Random(42);
+        Properties props = BenchWorlds.gameProperties();
+        props.setProperty("wall.A", BenchWorlds.placements(random, size * 40 / 100, ""));
+        props.setProperty("river.A", BenchWorlds.placements(random, size * 30 / 100, ""));
+        props.setProperty("table.A", BenchWorlds.placements(random, size * 10 / 100, ""));
+        props.setProperty("basket.A", BenchWorlds.placements(random, size * 10 / 100, ""));
+        props.setProperty("treasurebox.A", BenchWorlds.placements(random, size * 5 / 100, ",50"));
+        props.setProperty("bulletKin.A", BenchWorlds.placements(random, size * 3 / 100, ""));
+        props.setProperty("ashenBulletKin.A", BenchWorlds.placements(random, size * 2 / 100, ""));
+        world = new World(BenchWorlds.config(props));
+    }
+
+    @Override
+    public long run() {
+        BattleRoom room = new BattleRoom(world, world.config.rooms.idOf("A"));
+        room.initEntities(world.config);
+        return room.obstacles.size() + room.rivers.size() + room.enemies.size();
+    }
+}
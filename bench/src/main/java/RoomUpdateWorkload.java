@@ -0,0 +1,30 @@
+import java.util.Properties;
+import java.util.Random;
+import shadowdungeon.bench.Workload;
+
+/**
+ * BattleRoom.update for battle room A filled with active Bullet Kin and
+ * Ashen Bullet Kin firing at an idle player who cannot die.
+ */
+public class RoomUpdateWorkload implements Workload {
+    private World world;
+    private BattleRoom room;
+
+    @Override
+    public void setUp(int size) {
+        Random random = new Random(42);
+        Properties props = BenchWorlds.gameProperties();
+        props.setProperty("bulletKin.A", BenchWorlds.placements(random, size - size / 2, ""));
+        props.setProperty("ashenBulletKin.A", BenchWorlds.placements(random, size / 2, ""));
+        world = new World(BenchWorlds.config(props));
+        room = BenchWorlds.battleRoom(world);
+        room.activateEnemies();
+        world.getPlayer().addHealth(Double.MAX_VALUE / 2);
+    }
+
+    @Override
+    public long run() {
+        room.update(BenchWorlds.IDLE);
+        return world.projectiles.size();
+    }
+}
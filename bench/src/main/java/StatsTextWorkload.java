@@ -0,0 +1,22 @@
+import shadowdungeon.bench.Workload;
+
+/**
+ * The string building behind UserInterface.drawStats, with the health
+ * changing every tick, as on a river, and the coins every sixteenth tick.
+ */
+public class StatsTextWorkload implements Workload {
+    private long tick = 0;
+
+    @Override
+    public void setUp(int size) {
+        UserInterface.setConfig(BenchWorlds.config(BenchWorlds.gameProperties()));
+    }
+
+    @Override
+    public long run() {
+        tick++;
+        double health = 100 - (tick % 500) * 0.2;
+        double coins = (tick / 16) % 1000;
+        return UserInterface.updateStatsText(health, coins, 1, 0).length();
+    }
+}
@@ -0,0 +1,28 @@
+package shadowdungeon.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar.
+ * Takes the usual JMH command line and always adds the GC profiler, so every
+ * result comes with its allocation rate (gc.alloc.rate.norm is bytes per operation).
+ */
+public class BenchmarkMain {
+
+    /**
+     * Main entry point for the benchmarks.
+     *
+     * @param args JMH command line arguments, e.g. a benchmark name regex
+     * @throws Exception if the arguments are invalid or a benchmark fails to run
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
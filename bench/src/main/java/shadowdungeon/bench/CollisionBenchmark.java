@@ -0,0 +1,41 @@
+package shadowdungeon.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The collision checks of every tick: EntityStore.hasCollidedWith against the
+ * player, and Bullet and Fireball checkCollision for projectiles in the
+ * ProjectileStore against a room, over scattered positions so both hits and
+ * misses are measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    @Param({"256"})
+    public int objects;
+
+    private Workload gameObjects;
+    private Workload projectiles;
+
+    @Setup
+    public void setUp() {
+        gameObjects = Workload.load("PlayerCollisionWorkload", objects);
+        projectiles = Workload.load("ProjectileCollisionWorkload", objects);
+    }
+
+    @Benchmark
+    public long gameObjectHasCollidedWith() {
+        return gameObjects.run();
+    }
+
+    @Benchmark
+    public long projectileCheckCollision() {
+        return projectiles.run();
+    }
+}
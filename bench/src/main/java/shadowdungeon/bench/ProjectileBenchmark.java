@@ -0,0 +1,39 @@
+package shadowdungeon.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Moving, colliding and drawing every live projectile for one tick, in battle room A.
+ * The store is topped back up to the projectile count before each update.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProjectileBenchmark {
+
+    @Param({"16", "64", "256", "1024"})
+    public int projectiles;
+
+    private Workload bullets;
+    private Workload fireballs;
+
+    @Setup
+    public void setUp() {
+        bullets = Workload.load("BulletUpdateWorkload", projectiles);
+        fireballs = Workload.load("FireballUpdateWorkload", projectiles);
+    }
+
+    @Benchmark
+    public long bulletUpdateAll() {
+        return bullets.run();
+    }
+
+    @Benchmark
+    public long fireballUpdateAll() {
+        return fireballs.run();
+    }
+}
@@ -0,0 +1,32 @@
+package shadowdungeon.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Building a battle room with BattleRoom.initEntities from a generated
+ * configuration holding the given number of entity placements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoomLoadBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int entities;
+
+    private Workload rooms;
+
+    @Setup
+    public void setUp() {
+        rooms = Workload.load("RoomLoadWorkload", entities);
+    }
+
+    @Benchmark
+    public long initEntities() {
+        return rooms.run();
+    }
+}
@@ -0,0 +1,32 @@
+package shadowdungeon.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * One BattleRoom.update tick with the given number of active enemies,
+ * including the fireballs they keep in flight.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoomUpdateBenchmark {
+
+    @Param({"8", "64", "512"})
+    public int enemies;
+
+    private Workload room;
+
+    @Setup
+    public void setUp() {
+        room = Workload.load("RoomUpdateWorkload", enemies);
+    }
+
+    @Benchmark
+    public long update() {
+        return room.run();
+    }
+}
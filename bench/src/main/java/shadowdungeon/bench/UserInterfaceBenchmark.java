@@ -0,0 +1,29 @@
+package shadowdungeon.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Building the stats panel strings for UserInterface.drawStats when the
+ * player's health changes every tick and the coins now and then.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserInterfaceBenchmark {
+
+    private Workload stats;
+
+    @Setup
+    public void setUp() {
+        stats = Workload.load("StatsTextWorkload", 0);
+    }
+
+    @Benchmark
+    public long drawStatsText() {
+        return stats.run();
+    }
+}
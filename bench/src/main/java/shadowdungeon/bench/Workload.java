@@ -0,0 +1,43 @@
+package shadowdungeon.bench;
+
+/**
+ * A piece of game code to measure.
+ * The game's classes live in the unnamed package, which code in a named
+ * package cannot refer to, and JMH only accepts benchmarks in a named package.
+ * So each workload is written next to the game, in the unnamed package, and
+ * the benchmarks load it by name and call it through this interface.
+ */
+public interface Workload {
+
+    /**
+     * This method builds the game state the workload runs against.
+     *
+     * @param size The benchmark's size parameter, such as the number of projectiles
+     */
+    void setUp(int size);
+
+    /**
+     * This method runs one operation of the workload.
+     *
+     * @return A value derived from the operation, for the benchmark to consume
+     */
+    long run();
+
+    /**
+     * This method creates a workload from the unnamed package and sets it up.
+     *
+     * @param className The simple name of the workload class
+     * @param size      The benchmark's size parameter
+     * @return The workload, ready to run
+     */
+    static Workload load(String className, int size) {
+        Workload workload;
+        try {
+            workload = (Workload) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create workload '" + className + "'", e);
+        }
+        workload.setUp(size);
+        return workload;
+    }
+}
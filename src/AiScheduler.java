@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+/**
+ * Decides which enemies of a room think on each tick.
+ * Enemies within the near distance of the player think every tick. The
+ * rest take turns: each tick the next farBudget of them, in round-robin
+ * order, think once, and catch up on every tick they missed. When a room has
+ * no more far enemies than the budget, every enemy thinks every tick, exactly as
+ * without the scheduler. Far enemies never touch the player, since GameConfig
+ * rejects a near distance shorter than the farthest an enemy can touch the
+ * player from, so only their cooldowns and patrols need to catch up.
+ */
+public class AiScheduler {
+    private static final long NEVER = -1;       // lastThought of an enemy that has never thought or woken
+
+    private final double nearDistanceSquared;
+    private final int farBudget;
+
+    private long tick = 0;
+    private long[] lastThought = new long[0];   // Per entity: the tick it last thought or woke on, or NEVER
+    private long[] dueOn = new long[0];         // Per entity: the tick it was picked to think on
+    private int[] lags = new int[0];            // Per entity: the ticks it catches up on when it thinks
+    private int[] far = new int[0];
+    private int cursor = 0;                     // Entity id the next round-robin turn starts from
+
+    // Metrics for the last tick, and totals
+    private int nearUpdates;
+    private int farUpdates;
+    private int deferred;
+    private long maxLag;
+    private long totalNearUpdates = 0;
+    private long totalFarUpdates = 0;
+    private long totalDeferred = 0;
+
+    // Overlay line and the metrics it was formatted from
+    private final String[] overlayLines = new String[1];
+    private int shownNear = -1;
+    private int shownFar = -1;
+    private int shownDeferred = -1;
+    private long shownMaxLag = -1;
+
+    /**
+     * This constructor creates a scheduler.
+     *
+     * @param nearDistance The distance from the player within which enemies think every tick
+     * @param farBudget    The number of far enemies that may think on one tick
+     */
+    public AiScheduler(double nearDistance, int farBudget) {
+        this.nearDistanceSquared = nearDistance * nearDistance;
+        this.farBudget = farBudget;
+    }
+
+    /**
+     * This method starts a tick: it sorts the room's active enemies into near
+     * and far, picks the far ones whose turn it is, and records how many ticks
+     * each enemy that thinks catches up on.
+     *
+     * @param store   The room's entities
+     * @param enemies The room's enemies
+     * @param player  The player
+     */
+    public void beginTick(EntityStore store, EntityStore.View enemies, Player player) {
+        tick++;
+        ensureCapacity(store.size());
+        nearUpdates = 0;
+        farUpdates = 0;
+        deferred = 0;
+        maxLag = 0;
+
+        int farCount = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            int id = enemies.get(i);
+            if (!store.active[id] || store.dead[id]) continue;
+            double dx = store.x[id] - player.getX();
+            double dy = store.y[id] - player.getY();
+            if (dx * dx + dy * dy <= nearDistanceSquared) {
+                schedule(id);
+                nearUpdates++;
+            } else {
+                far[farCount++] = id;
+            }
+        }
+
+        // Far ids are ascending; the turn starts at the first one at or after the cursor
+        int start = 0;
+        while (start < farCount && far[start] < cursor) start++;
+        int turns = Math.min(farBudget, farCount);
+        for (int i = 0; i < turns; i++) {
+            int id = far[(start + i) % farCount];
+            schedule(id);
+            cursor = id + 1;
+        }
+        farUpdates = turns;
+        deferred = farCount - turns;
+    }
+
+    /**
+     * This method tells whether an enemy thinks this tick and, if so, for how many ticks.
+     * It only reads what beginTick decided, so enemies may ask from several threads at once.
+     *
+     * @param id The enemy
+     * @return The ticks since it last thought, or 0 if it does not think this tick
+     */
+    public int thinkingTicks(int id) {
+        return dueOn[id] == tick ? lags[id] : 0;
+    }
+
+    /**
+     * This method ends a tick and adds its metrics to the totals.
+     */
+    public void endTick() {
+        totalNearUpdates += nearUpdates;
+        totalFarUpdates += farUpdates;
+        totalDeferred += deferred;
+    }
+
+    /**
+     * This method restarts the catch-up clock of an enemy that wakes up, so it
+     * does not catch up on the time it was asleep but does catch up on every
+     * tick it then waits for its first turn.
+     *
+     * @param id The enemy
+     */
+    public void wake(int id) {
+        ensureCapacity(id + 1);
+        lastThought[id] = tick;
+    }
+
+    /** @return The number of near enemies that thought on the last tick */
+    public int getNearUpdates() {
+        return nearUpdates;
+    }
+
+    /** @return The number of far enemies that thought on the last tick */
+    public int getFarUpdates() {
+        return farUpdates;
+    }
+
+    /** @return The number of far enemies left waiting for their turn on the last tick */
+    public int getDeferred() {
+        return deferred;
+    }
+
+    /** @return The most ticks an enemy caught up on during the last tick */
+    public long getMaxLag() {
+        return maxLag;
+    }
+
+    /** @return The near updates of every tick so far */
+    public long getTotalNearUpdates() {
+        return totalNearUpdates;
+    }
+
+    /** @return The far updates of every tick so far */
+    public long getTotalFarUpdates() {
+        return totalFarUpdates;
+    }
+
+    /** @return The deferred far enemies of every tick so far */
+    public long getTotalDeferred() {
+        return totalDeferred;
+    }
+
+    /**
+     * This method returns the last tick's metrics as a line for the profiler overlay.
+     * The line is only formatted again when the metrics change, so drawing it every
+     * frame allocates nothing.
+     *
+     * @return The same one-line array on every call
+     */
+    public String[] getOverlayLines() {
+        if (nearUpdates != shownNear || farUpdates != shownFar || deferred != shownDeferred
+                || maxLag != shownMaxLag) {
+            shownNear = nearUpdates;
+            shownFar = farUpdates;
+            shownDeferred = deferred;
+            shownMaxLag = maxLag;
+            overlayLines[0] = toString();
+        }
+        return overlayLines;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ai near %d  far %d  deferred %d  max lag %d",
+                nearUpdates, farUpdates, deferred, maxLag);
+    }
+
+    private void schedule(int id) {
+        long lag = lastThought[id] == NEVER ? 1 : tick - lastThought[id];
+        dueOn[id] = tick;
+        lastThought[id] = tick;
+        lags[id] = (int) lag;
+        if (lag > maxLag) maxLag = lag;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= lastThought.length) return;
+        int size = Math.max(capacity, lastThought.length * 2);
+        int oldSize = lastThought.length;
+        lastThought = Arrays.copyOf(lastThought, size);
+        Arrays.fill(lastThought, oldSize, size, NEVER);
+        dueOn = Arrays.copyOf(dueOn, size);
+        lags = Arrays.copyOf(lags, size);
+        far = Arrays.copyOf(far, size);
+    }
+}
@@ -0,0 +1,262 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Checks that the simulation stays inside its allocation budgets.
+ * Each scenario plays headless for a warm-up, so the JIT has compiled and
+ * escape-analysed the hot path, then counts the bytes every tick phase
+ * allocates. A phase that allocates more than its budget in
+ * res/allocation-budgets.properties in any one lap is over budget, so a rare
+ * spike counts as much as a steady leak.
+ *
+ * A scenario over budget is played once more, and fails the check only if it
+ * is over budget again. A compiled method that is deoptimised, for example
+ * when a scenario's new input class breaks a type check, puts its
+ * escape-analysed objects on the heap once, in whichever lap it happens; code
+ * that really allocates does so on every run. main exits with status 1 on a failure.
+ */
+public class AllocationBudget {
+    private static final String BUDGETS_FILE = "res/allocation-budgets.properties";
+    private static final int DEFAULT_WARM_UP_TICKS = 20000;
+    private static final int DEFAULT_MEASURED_TICKS = 5000;
+
+    /** Scenario names, in the order they run by default */
+    public static final String[] SCENARIOS = {"scripted", "battle", "movement", "store"};
+
+    /**
+     * This method plays a scenario and returns the world, whose profiler holds
+     * the allocations of the measured ticks.
+     *
+     * @param config        The game configuration
+     * @param scenario      The scenario name, one of {@link #SCENARIOS}
+     * @param warmUpTicks   Ticks played before counting starts
+     * @param measuredTicks Ticks counted
+     * @return The world after the run
+     */
+    public static World run(GameConfig config, String scenario, int warmUpTicks, int measuredTicks) {
+        RenderQueue.setEnabled(false);
+        World world = new World(config);
+        GameInput input;
+        switch (scenario) {
+            case "scripted" -> input = new ScriptedInput(0, config.windowWidth, config.windowHeight);
+            case "battle" -> {
+                // Every enemy of the first battle room awake and firing at a player who stands still
+                int battleRoom = config.rooms.firstOfType(RoomGraph.BATTLE);
+                world.changeRoom(battleRoom);
+                ((BattleRoom) world.getRoom(battleRoom)).activateEnemies();
+                input = new IdleInput(false);
+            }
+            case "movement" -> {
+                // The player walks a loop and fires in the first battle room while its patrols walk their routes.
+                // The room counts as complete, so the door does not lock behind the player and wake the shooters.
+                int battleRoom = config.rooms.firstOfType(RoomGraph.BATTLE);
+                BattleRoom room = (BattleRoom) world.getRoom(battleRoom);
+                room.isComplete = true;
+                world.changeRoom(battleRoom);
+                for (int i = 0; i < room.enemies.size(); i++) {
+                    int id = room.enemies.get(i);
+                    if (room.entities.ai[id] == EntityStore.PATROL) {
+                        room.entities.active[id] = true;
+                        room.aiScheduler.wake(id);
+                    }
+                }
+                input = new WalkingInput();
+            }
+            case "store" -> input = new IdleInput(true);    // Opens the store in the prep room and leaves it open
+            default -> throw new IllegalArgumentException("Unknown scenario '" + scenario + "'");
+        }
+
+        FrameProfiler profiler = world.profiler;
+        profiler.setEnabled(true);
+        profiler.setAllocationTracking(true);
+        boolean keepAlive = scenario.equals("battle") || scenario.equals("movement");
+        play(world, input, keepAlive, warmUpTicks);
+        profiler.reset();
+        play(world, input, keepAlive, measuredTicks);
+        return world;
+    }
+
+    /**
+     * This method plays some ticks of a scenario.
+     *
+     * @param world     The world to step
+     * @param input     The scenario's input
+     * @param keepAlive true to restore the player's health after every tick
+     * @param ticks     The number of ticks to play
+     */
+    private static void play(World world, GameInput input, boolean keepAlive, int ticks) {
+        for (int tick = 0; tick < ticks; tick++) {
+            input.nextTick();
+            world.step(input);
+            if (keepAlive) {
+                Player player = world.getPlayer();
+                player.addHealth(world.config.initialHealth - player.getHealth()); // Keep the target alive
+            }
+        }
+    }
+
+    /**
+     * This method compares the allocations of a run with the budgets.
+     *
+     * @param profiler The profiler of the run
+     * @param scenario The scenario name, for scenario-specific budgets
+     * @param budgets  The budgets: "scenario.phase" overrides "phase", which overrides "default"
+     * @return One message per phase over budget; empty if the run is inside its budgets
+     */
+    public static List<String> check(FrameProfiler profiler, String scenario, Properties budgets) {
+        List<String> failures = new ArrayList<>();
+        for (int phase = 0; phase < FrameProfiler.getPhaseCount(); phase++) {
+            if (profiler.getAllocationLaps(phase) == 0) continue;
+            String name = FrameProfiler.getPhaseName(phase);
+            double budget = Double.parseDouble(budgets.getProperty(scenario + "." + name,
+                    budgets.getProperty(name, budgets.getProperty("default", "0"))));
+            long max = profiler.getMaxBytes(phase);
+            if (max > budget) {
+                failures.add(String.format(Locale.ROOT, "%s: %s allocated up to %d bytes in a lap (mean %.1f), budget %.0f",
+                        scenario, name, max, profiler.getMeanBytes(phase), budget));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Main entry point for the allocation check.
+     * Arguments: the scenarios to run (default: all), "--warmup N" and "--ticks N"
+     * for the number of warm-up and counted ticks.
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        GameConfig config = new GameConfig(IOUtils.readPropertiesFile("res/app.properties"),
+                IOUtils.readPropertiesFile("res/message.properties"));
+        Properties budgets = IOUtils.readPropertiesFile(BUDGETS_FILE);
+
+        int warmUpTicks = DEFAULT_WARM_UP_TICKS;
+        int measuredTicks = DEFAULT_MEASURED_TICKS;
+        List<String> scenarios = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--warmup" -> warmUpTicks = Integer.parseInt(args[++i]);
+                case "--ticks" -> measuredTicks = Integer.parseInt(args[++i]);
+                default -> scenarios.add(args[i]);
+            }
+        }
+        if (scenarios.isEmpty()) scenarios = List.of(SCENARIOS);
+
+        List<String> failures = new ArrayList<>();
+        for (String scenario : scenarios) {
+            World world = run(config, scenario, warmUpTicks, measuredTicks);
+            System.out.println("== " + scenario);
+            System.out.println(world.profiler.getSummary());
+            List<String> overBudget = check(world.profiler, scenario, budgets);
+            if (!overBudget.isEmpty()) {
+                overBudget.forEach(line -> System.out.println("Over budget, playing again: " + line));
+                world = run(config, scenario, warmUpTicks, measuredTicks);
+                System.out.println("== " + scenario + " (again)");
+                System.out.println(world.profiler.getSummary());
+                failures.addAll(check(world.profiler, scenario, budgets));
+            }
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("All phases within their allocation budgets");
+        } else {
+            failures.forEach(System.out::println);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Input that walks the player sideways away from the door they entered by, then
+     * round a loop beside it for ever, holding the fire button and turning to face
+     * each side in turn. The loop fits the corridor below the first battle room's walls.
+     */
+    private static class WalkingInput implements GameInput {
+        private static final int LEAVE_TICKS = 40;
+        private static final Keys[] SIDES = {Keys.W, Keys.D, Keys.S, Keys.A};
+        private static final int[] SIDE_TICKS = {20, 60, 20, 60};
+        private int tick = 0;
+        private int side = 0;
+        private int sideTick = 0;
+
+        @Override
+        public void nextTick() {
+            tick++;
+            if (tick > LEAVE_TICKS && ++sideTick > SIDE_TICKS[side]) {
+                side = (side + 1) % SIDES.length;
+                sideTick = 1;
+            }
+        }
+
+        @Override
+        public boolean isDown(Keys key) {
+            return key == (tick <= LEAVE_TICKS ? Keys.D : SIDES[side]);
+        }
+
+        @Override
+        public boolean wasPressed(Keys key) {
+            return false;
+        }
+
+        @Override
+        public boolean isDown(MouseButtons button) {
+            return button == MouseButtons.LEFT;
+        }
+
+        @Override
+        public double getMouseX() {
+            return side % 2 == 0 ? 0 : 1024;
+        }
+
+        @Override
+        public double getMouseY() {
+            return 0;
+        }
+    }
+
+    /**
+     * Input with nothing held, that presses SPACE once on the first tick if asked to.
+     */
+    private static class IdleInput implements GameInput {
+        private final boolean openStore;
+        private int tick = 0;
+
+        IdleInput(boolean openStore) {
+            this.openStore = openStore;
+        }
+
+        @Override
+        public void nextTick() {
+            tick++;
+        }
+
+        @Override
+        public boolean isDown(Keys key) {
+            return false;
+        }
+
+        @Override
+        public boolean wasPressed(Keys key) {
+            return openStore && tick == 1 && key == Keys.SPACE;
+        }
+
+        @Override
+        public boolean isDown(MouseButtons button) {
+            return false;
+        }
+
+        @Override
+        public double getMouseX() {
+            return 0;
+        }
+
+        @Override
+        public double getMouseY() {
+            return 0;
+        }
+    }
+}
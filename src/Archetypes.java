@@ -0,0 +1,197 @@
+import bagel.util.Point;
+import java.util.List;
+
+/**
+ * Creates the entities of a room from their archetypes.
+ * Each archetype is a fixed set of components with values from the game
+ * configuration; a new kind of entity is a new method here, made from the
+ * existing components, and the systems pick it up without changes.
+ */
+public final class Archetypes {
+    private static final Texture BULLET_KIN = TextureRegistry.get("res/bullet_kin.png");
+    private static final Texture ASHEN_BULLET_KIN = TextureRegistry.get("res/ashen_bullet_kin.png");
+    public static final Texture CHASER_BULLET_KIN = TextureRegistry.get("res/bullet_kin.png");
+    private static final Texture KEY_BULLET_KIN = TextureRegistry.get("res/key_bullet_kin.png");
+    private static final Texture WALL = TextureRegistry.get("res/wall.png");
+    private static final Texture TABLE = TextureRegistry.get("res/table.png");
+    private static final Texture BASKET = TextureRegistry.get("res/basket.png");
+    private static final Texture RIVER = TextureRegistry.get("res/river.png");
+    private static final Texture TREASURE_BOX = TextureRegistry.get("res/treasure_box.png");
+    private static final Texture KEY = TextureRegistry.get("res/key.png");
+
+    /** Every image an enemy can be drawn with, for checks that depend on enemy size */
+    public static final Texture[] ENEMY_SPRITES = {BULLET_KIN, ASHEN_BULLET_KIN, CHASER_BULLET_KIN, KEY_BULLET_KIN};
+
+    /** Damage an enemy deals to the player per tick of contact */
+    private static final double ENEMY_CONTACT_DAMAGE = 0.2;
+
+    private Archetypes() {
+    }
+
+    /**
+     * This method creates a Bullet Kin, which fires at the player once woken and pays coins when killed.
+     *
+     * @param store    The room's entities
+     * @param config   The game configuration
+     * @param position The position of the enemy
+     * @return The id of the enemy
+     */
+    public static int bulletKin(EntityStore store, GameConfig config, Point position) {
+        int id = store.create(EntityStore.BULLET_KIN, position, BULLET_KIN, RenderQueue.ENEMIES, false);
+        store.addHealth(id, config.bulletKinHealth);
+        store.addCollider(id, EntityStore.HURTS, ENEMY_CONTACT_DAMAGE);
+        store.addReward(id, config.bulletKinCoin);
+        store.addShooter(id, config.bulletKinShootFrequency);
+        return id;
+    }
+
+    /**
+     * This method creates an Ashen Bullet Kin, a tougher Bullet Kin.
+     *
+     * @param store    The room's entities
+     * @param config   The game configuration
+     * @param position The position of the enemy
+     * @return The id of the enemy
+     */
+    public static int ashenBulletKin(EntityStore store, GameConfig config, Point position) {
+        int id = store.create(EntityStore.ASHEN_BULLET_KIN, position, ASHEN_BULLET_KIN, RenderQueue.ENEMIES, false);
+        store.addHealth(id, config.ashenBulletKinHealth);
+        store.addCollider(id, EntityStore.HURTS, ENEMY_CONTACT_DAMAGE);
+        store.addReward(id, config.ashenBulletKinCoin);
+        store.addShooter(id, config.ashenBulletKinShootFrequency);
+        return id;
+    }
+
+    /**
+     * This method creates a Key Bullet Kin, which walks a looped path and drops a key when killed.
+     *
+     * @param store  The room's entities
+     * @param config The game configuration
+     * @param path   The path to walk, starting at its first point
+     * @return The id of the enemy
+     */
+    public static int keyBulletKin(EntityStore store, GameConfig config, List<Point> path) {
+        return keyBulletKin(store, config, PatrolRoute.get(path.toArray(new Point[0]), config.keyBulletKinPathSmoothing), 0);
+    }
+
+    /**
+     * This method creates a Key Bullet Kin on a compiled route, part of the way along it.
+     * Any number of them can share one route.
+     *
+     * @param store  The room's entities
+     * @param config The game configuration
+     * @param route  The route to walk
+     * @param phase  The distance along the route to start at
+     * @return The id of the enemy
+     */
+    public static int keyBulletKin(EntityStore store, GameConfig config, PatrolRoute route, double phase) {
+        int id = store.create(EntityStore.KEY_BULLET_KIN, new Point(0, 0), KEY_BULLET_KIN, RenderQueue.ENEMIES, false);
+        store.addHealth(id, config.keyBulletKinHealth);
+        store.addCollider(id, EntityStore.HURTS, ENEMY_CONTACT_DAMAGE);
+        store.addKeyDrop(id);
+        store.addPatrol(id, route, config.keyBulletKinSpeed, phase);
+        return id;
+    }
+
+    /**
+     * This method creates a Chaser Bullet Kin, which walks around obstacles toward the player once woken.
+     *
+     * @param store    The room's entities
+     * @param config   The game configuration
+     * @param position The position of the enemy
+     * @return The id of the enemy
+     */
+    public static int chaserBulletKin(EntityStore store, GameConfig config, Point position) {
+        int id = store.create(EntityStore.CHASER_BULLET_KIN, position, CHASER_BULLET_KIN, RenderQueue.ENEMIES, false);
+        store.addHealth(id, config.chaserBulletKinHealth);
+        store.addCollider(id, EntityStore.HURTS, ENEMY_CONTACT_DAMAGE);
+        store.addReward(id, config.chaserBulletKinCoin);
+        store.addChaser(id, config.chaserBulletKinSpeed);
+        return id;
+    }
+
+    /**
+     * This method creates a wall, which blocks the player and every projectile.
+     *
+     * @param store    The room's entities
+     * @param position The position of the wall
+     * @return The id of the wall
+     */
+    public static int wall(EntityStore store, Point position) {
+        int id = store.create(EntityStore.WALL, position, WALL, RenderQueue.OBSTACLES, true);
+        store.addCollider(id, EntityStore.SOLID, 0);
+        return id;
+    }
+
+    /**
+     * This method creates a table, which blocks the player until a bullet breaks it.
+     *
+     * @param store    The room's entities
+     * @param position The position of the table
+     * @return The id of the table
+     */
+    public static int table(EntityStore store, Point position) {
+        int id = store.create(EntityStore.TABLE, position, TABLE, RenderQueue.OBSTACLES, true);
+        store.addCollider(id, EntityStore.SOLID, 0);
+        store.addHealth(id, 0);     // Breaks on the first hit
+        return id;
+    }
+
+    /**
+     * This method creates a basket, a table that pays coins when broken.
+     *
+     * @param store     The room's entities
+     * @param position  The position of the basket
+     * @param coinValue The coins paid when it is broken
+     * @return The id of the basket
+     */
+    public static int basket(EntityStore store, Point position, double coinValue) {
+        int id = store.create(EntityStore.BASKET, position, BASKET, RenderQueue.OBSTACLES, true);
+        store.addCollider(id, EntityStore.SOLID, 0);
+        store.addHealth(id, 0);
+        store.addReward(id, coinValue);
+        return id;
+    }
+
+    /**
+     * This method creates a river tile that did not fit the river tile layer.
+     *
+     * @param store          The room's entities
+     * @param position       The position of the tile
+     * @param damagePerFrame The damage dealt to a player standing on it per tick
+     * @return The id of the tile
+     */
+    public static int river(EntityStore store, Point position, double damagePerFrame) {
+        int id = store.create(EntityStore.RIVER, position, RIVER, RenderQueue.FLOOR, true);
+        store.addCollider(id, EntityStore.HAZARD, damagePerFrame);
+        return id;
+    }
+
+    /**
+     * This method creates a treasure box, opened with a key for its coins.
+     *
+     * @param store     The room's entities
+     * @param position  The position of the box
+     * @param coinValue The coins inside
+     * @return The id of the box
+     */
+    public static int treasureBox(EntityStore store, Point position, double coinValue) {
+        int id = store.create(EntityStore.TREASURE_BOX, position, TREASURE_BOX, RenderQueue.FLOOR, true);
+        store.addCollider(id, EntityStore.LOCKED, 0);
+        store.addReward(id, coinValue);
+        return id;
+    }
+
+    /**
+     * This method creates a key, collected when the player walks over it.
+     *
+     * @param store    The room's entities
+     * @param position The position of the key
+     * @return The id of the key
+     */
+    public static int key(EntityStore store, Point position) {
+        int id = store.create(EntityStore.KEY, position, KEY, RenderQueue.ITEMS, true);
+        store.addCollider(id, EntityStore.PICKUP, 0);
+        return id;
+    }
+}
@@ -0,0 +1,66 @@
+import bagel.Input;
+import bagel.Keys;
+import bagel.MouseButtons;
+import java.util.EnumSet;
+
+/**
+ * GameInput backed by the input Bagel hands to the game each rendered frame.
+ * Key presses are held until the next simulation tick starts, so a press is
+ * neither lost on a frame that runs no tick nor repeated on a frame that runs several.
+ */
+public class BagelInput implements GameInput {
+    private static final Keys[] KEYS = Keys.values();
+
+    private final EnumSet<Keys> pending = EnumSet.noneOf(Keys.class);
+    private final EnumSet<Keys> pressed = EnumSet.noneOf(Keys.class);
+    private Input input;
+
+    /**
+     * This method reads the current frame's input and remembers any new key presses.
+     *
+     * @param input The input from Bagel
+     * @return This adapter
+     */
+    public BagelInput poll(Input input) {
+        this.input = input;
+        for (Keys key : KEYS) {
+            if (input.wasPressed(key)) pending.add(key);
+        }
+        return this;
+    }
+
+    /**
+     * This method hands the key presses collected since the last tick to the next tick.
+     */
+    @Override
+    public void nextTick() {
+        pressed.clear();
+        pressed.addAll(pending);
+        pending.clear();
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return input.isDown(key);
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return pressed.contains(key);
+    }
+
+    @Override
+    public boolean isDown(MouseButtons button) {
+        return input.isDown(button);
+    }
+
+    @Override
+    public double getMouseX() {
+        return input.getMouseX();
+    }
+
+    @Override
+    public double getMouseY() {
+        return input.getMouseY();
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs many independent headless games at once, one World per run, spread
+ * over every core with a fork/join pool. Run i plays ScriptedInput seed i for
+ * gamePlay.maxFrames ticks, so a batch is repeatable.
+ */
+public class BatchRunner {
+    private static final int DEFAULT_RUNS = 256;
+
+    /**
+     * This method plays a range of seeds in parallel.
+     *
+     * @param config  The game configuration shared by every run
+     * @param runs    The number of runs; run i uses seed i
+     * @param threads The parallelism of the fork/join pool
+     * @return The result of every run, indexed by seed
+     */
+    public static HeadlessGame.Result[] run(GameConfig config, int runs, int threads) {
+        HeadlessGame.Result[] results = new HeadlessGame.Result[runs];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new Runs(config, results, 0, runs));
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * Main entry point for a batch run.
+     * Arguments: the number of runs (default 256) and the number of threads
+     * (default: one per available processor).
+     *
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        GameConfig config = new GameConfig(IOUtils.readPropertiesFile("res/app.properties"),
+                IOUtils.readPropertiesFile("res/message.properties"));
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        HeadlessGame.Result[] results = run(config, runs, threads);
+        long elapsedNanos = System.nanoTime() - start;
+
+        long ticks = 0;
+        long busyNanos = 0;
+        Map<String, Integer> finalRooms = new TreeMap<>();
+        for (HeadlessGame.Result result : results) {
+            ticks += result.frames;
+            busyNanos += result.elapsedNanos;
+            finalRooms.merge(result.finalState.room, 1, Integer::sum);
+        }
+
+        System.out.printf("runs=%d threads=%d ticks=%d time=%.3fs%n", runs, threads, ticks, elapsedNanos / 1e9);
+        System.out.printf("throughput=%.0f ticks/s (%.0f ticks/s per run, %.1f runs/s)%n",
+                ticks * 1e9 / elapsedNanos, ticks * 1e9 / busyNanos, runs * 1e9 / elapsedNanos);
+        System.out.println("final rooms " + finalRooms);
+    }
+
+    /**
+     * Plays the seeds in [from, to), splitting the range in half until one run is left.
+     */
+    private static class Runs extends RecursiveAction {
+        private final GameConfig config;
+        private final HeadlessGame.Result[] results;
+        private final int from;
+        private final int to;
+
+        Runs(GameConfig config, HeadlessGame.Result[] results, int from, int to) {
+            this.config = config;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                GameInput input = new ScriptedInput(from, config.windowWidth, config.windowHeight);
+                results[from] = HeadlessGame.run(config, input, config.maxFrames);
+            } else if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Runs(config, results, from, middle), new Runs(config, results, middle, to));
+            }
+        }
+    }
+}
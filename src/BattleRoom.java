@@ -1,91 +1,95 @@
-import bagel.Input;
 import java.util.ArrayList;
 import java.util.Map;
 import bagel.util.Point;
 import java.util.List;
-import java.util.Properties;
 
 /**
  * This class represents a battle room in the dungeon.
  * Enemies must be defeated to unlock doors and progress.
  */
 public class BattleRoom extends Room {
-    private Door primaryDoor, secondaryDoor;
     public boolean isComplete = false;
-    private final String roomName;
-    public ArrayList<Key> keys = new ArrayList<>();
+    private final double riverDamagePerFrame;
 
     /**
-     * This method constructs a BattleRoom with a name and the next room's name.
+     * This method constructs an empty BattleRoom.
      *
-     * @param roomName The name of this room
-     * @param nextRoomName The name of the next room
+     * @param world The session the room is part of
+     * @param id    The room's id in the room graph
      */
-    public BattleRoom(String roomName, String nextRoomName) {
-        this.roomName = roomName;
+    public BattleRoom(World world, int id) {
+        super(world, id);
+        this.riverDamagePerFrame = world.config.riverDamagePerFrame;
     }
 
     /**
-     * This method initializes all entities in the room from the game properties.
+     * This method initializes all entities in the room from the game configuration.
      *
-     * @param gameProperties The properties file containing room entity definitions
+     * @param config The game configuration containing room entity placements
      */
     @Override
-    public void initEntities(Properties gameProperties) {
-        String roomSuffix = "." + roomName;
-
-        for (Map.Entry<Object, Object> entry : gameProperties.entrySet()) {
-            if (entry.getKey().toString().contains(roomSuffix)) {
-                String objectType = entry.getKey().toString()
-                        .substring(0, entry.getKey().toString().length() - roomSuffix.length());
-                String propertyValue = entry.getValue().toString();
-                if (propertyValue.equals("0")) continue;
-
-                for (String coords : propertyValue.split(";")) {
-                    String[] coordinates = coords.split(",");
-                    switch (objectType) {
-                        case "primarydoor":
-                            primaryDoor = new Door(IOUtils.parseCoords(coords), coordinates[2], this);
-                            doors.add(primaryDoor);
-                            break;
-                        case "secondarydoor":
-                            secondaryDoor = new Door(IOUtils.parseCoords(coords), coordinates[2], this);
-                            doors.add(secondaryDoor);
-                            break;
-                        case "bulletKin":
-                            enemies.add(new BulletKin(IOUtils.parseCoords(coords)));
-                            break;
-                        case "ashenBulletKin":
-                            enemies.add(new AshenBulletKin(IOUtils.parseCoords(coords)));
-                            break;
-                        case "wall":
-                            obstacles.add(new Wall(IOUtils.parseCoords(coords)));
-                            break;
-                        case "treasurebox":
-                            treasureBoxes.add(new TreasureBox(IOUtils.parseCoords(coords),
-                                    Double.parseDouble(coordinates[2])));
-                            break;
-                        case "river":
-                            rivers.add(new River(IOUtils.parseCoords(coords)));
-                            break;
-                        case "table":
-                            obstacles.add(new Table(IOUtils.parseCoords(coords)));
-                            break;
-                        case "basket":
-                            obstacles.add(new Basket(IOUtils.parseCoords(coords)));
-                            break;
-                    }
+    public void initEntities(GameConfig config) {
+        GameEvents.RoomLoad event = new GameEvents.RoomLoad();
+        event.begin();
+
+        addDoors(this);
+        for (Map.Entry<String, GameConfig.Placement[]> entry : config.getRoomEntities(name).entrySet()) {
+            String objectType = entry.getKey();
+            GameConfig.Placement[] placements = entry.getValue();
+            if (placements.length == 0) continue;
+            if (objectType.equals("wall")) wallLayerOrder = entities.size();
+
+            for (GameConfig.Placement placement : placements) {
+                switch (objectType) {
+                    case "bulletKin":
+                        Archetypes.bulletKin(entities, config, placement.toPoint());
+                        break;
+                    case "ashenBulletKin":
+                        Archetypes.ashenBulletKin(entities, config, placement.toPoint());
+                        break;
+                    case "chaserBulletKin":
+                        Archetypes.chaserBulletKin(entities, config, placement.toPoint());
+                        break;
+                    case "wall":
+                        if (!wallLayer.add(placement.x, placement.y)) {
+                            Archetypes.wall(entities, placement.toPoint());
+                        }
+                        break;
+                    case "treasurebox":
+                        Archetypes.treasureBox(entities, placement.toPoint(), Double.parseDouble(placement.tag));
+                        break;
+                    case "river":
+                        if (!riverLayer.add(placement.x, placement.y)) {
+                            Archetypes.river(entities, placement.toPoint(), config.riverDamagePerFrame);
+                        }
+                        break;
+                    case "table":
+                        Archetypes.table(entities, placement.toPoint());
+                        break;
+                    case "basket":
+                        Archetypes.basket(entities, placement.toPoint(), config.basketCoin);
+                        break;
                 }
+            }
 
-                if (objectType.equals("keyBulletKin")) {
-                    List<Point> path = new ArrayList<>();
-                    for (String coord : propertyValue.split(";")) {
-                        path.add(IOUtils.parseCoords(coord));
-                    }
-                    enemies.add(new KeyBulletKin(path));
+            if (objectType.equals("keyBulletKin")) {
+                List<Point> path = new ArrayList<>();
+                for (GameConfig.Placement placement : placements) {
+                    path.add(placement.toPoint());
                 }
+                Archetypes.keyBulletKin(entities, config, path);
             }
         }
+
+        buildCollisionGrids();
+        buildStaticLayers();
+
+        event.room = name;
+        event.enemies = enemies.size();
+        event.obstacles = obstacles.size();
+        event.rivers = rivers.size();
+        event.treasureBoxes = treasureBoxes.size();
+        event.commit();
     }
 
     /**
@@ -95,71 +99,49 @@ public class BattleRoom extends Room {
      * @param input The input representing player actions
      */
     @Override
-    public void update(Input input) {
+    public void update(GameInput input) {
+        FrameProfiler profiler = world.profiler;
+        long time = profiler.start();
+
+        entities.compact();
         checkStoreState(input);
+        time = profiler.lap(FrameProfiler.STORE, time);
         if (paused) return;
 
-        primaryDoor.update(player);
-        primaryDoor.draw();
+        updateDoors();
+        time = profiler.lap(FrameProfiler.DOORS, time);
         if (stopUpdatingEarlyIfNeeded()) return;
 
-        secondaryDoor.update(player);
-        secondaryDoor.draw();
-        if (stopUpdatingEarlyIfNeeded()) return;
+        // Rivers, walls and unbreakable obstacles are drawn from the pre-rendered layer when possible
+        boolean layersRendered = staticLayer.isAvailable();
+        if (layersRendered) staticLayer.draw();
 
-        for (River river : rivers) {
-            river.update(player);
-            river.draw();
+        // Every river the player stands on hurts, as overlapping river tiles each did when they were entities
+        if (player.getCharacter() != Character.MARINE) {
+            int riversTouched = riverLayer.overlapCount(player);
+            if (riversTouched > 0) player.receiveDamage(riverDamagePerFrame * riversTouched);
         }
+        if (!layersRendered) riverLayer.draw();
 
-        for (TreasureBox treasureBox : treasureBoxes) {
-            if (treasureBox.isActive()) {
-                treasureBox.update(input, player);
-                treasureBox.draw();
-            }
-        }
+        EntitySystems.updateHazards(this, player, !layersRendered);
+        time = profiler.lap(FrameProfiler.RIVERS, time);
 
-        for (ObstacleObject obstacle : obstacles) {
-            if (obstacle.isActive()) {
-                obstacle.update(player);
-                obstacle.draw();
-            }
-        }
+        EntitySystems.updateLocks(this, input, player);
+        time = profiler.lap(FrameProfiler.TREASURE, time);
 
-        for (Key key : keys) {
-            if (key.isActive()) {
-                key.update(player);
-                key.draw();
-            }
+        if (wallLayer.overlaps(player)) {
+            player.move(player.getPrevX(), player.getPrevY());
         }
+        if (!layersRendered) wallLayer.draw();
 
-        for (Enemy enemy : enemies) {
-            if (enemy.isActive()) {
-                if (enemy.isDead()) {
-                    enemy.setActive(false);
-                    if (enemy instanceof KeyBulletKin) {
-                        keys.add(new Key(enemy.getPosition()));
-                    }
-                    if (enemy instanceof AshenBulletKin) {
-                        switch (player.getCharacter()) {
-                            case MARINE -> player.earnCoins(AshenBulletKin.coinsGained);
-                            case ROBOT -> player.earnCoins(AshenBulletKin.coinsGained + player.robotBonusCoin);
-                        }
-                    }
-                    if (enemy instanceof BulletKin) {
-                        switch (player.getCharacter()) {
-                            case MARINE -> player.earnCoins(BulletKin.coinsGained);
-                            case ROBOT -> player.earnCoins(BulletKin.coinsGained + player.robotBonusCoin);
-                        }
-                    }
-                }
+        EntitySystems.updateSolids(this, player, !layersRendered);
+        time = profiler.lap(FrameProfiler.OBSTACLES, time);
 
-                if (enemy.isActive()) {
-                    enemy.update(player);
-                    enemy.draw();
-                }
-            }
-        }
+        EntitySystems.updatePickups(this, player);
+        time = profiler.lap(FrameProfiler.KEYS, time);
+
+        EntitySystems.updateEnemies(this, player);
+        time = profiler.lap(FrameProfiler.ENEMIES, time);
 
         if (player != null) {
             player.update(input);
@@ -170,52 +152,52 @@ public class BattleRoom extends Room {
             isComplete = true;
             unlockAllDoors();
         }
+        time = profiler.lap(FrameProfiler.PLAYER, time);
 
-        handleBullets(input, obstacles, doors, enemies);
-        Fireball.updateAll(player, obstacles, doors);
+        handleBullets(input);
+        time = profiler.lap(FrameProfiler.BULLETS, time);
+        Fireball.updateAll(player, this);
+        profiler.lap(FrameProfiler.FIREBALLS, time);
     }
 
     /**
-     * This method finds a door by its destination room name.
+     * This method arranges for the arrival door to lock behind the player while the room is unfinished.
      *
-     * @param roomName The name of the target room
-     * @return The door leading to the target room
+     * @param arrival The door the player arrives at
      */
     @Override
-    public Door findDoorByDestination(String roomName) {
-        if (primaryDoor.toRoomName.equals(roomName)) return primaryDoor;
-        return secondaryDoor;
+    public void onEnter(Door arrival) {
+        if (!isComplete) arrival.setShouldLockAgain();
     }
 
     /**
      * This method unlocks all doors in the room.
      */
     private void unlockAllDoors() {
-        primaryDoor.unlock(false);
-        secondaryDoor.unlock(false);
+        for (int i = 0; i < doors.size(); i++) {
+            doors.get(i).unlock(false);
+        }
     }
 
     /**
-     * This method checks if all enemies in the room are dead.
+     * This method checks if all enemies in the room are dead, from the enemy view's living count.
      *
      * @return true if no enemies remain, false otherwise
      */
     public boolean noMoreEnemies() {
-        for (Enemy enemy : enemies) {
-            if (!enemy.isDead()) {
-                return false;
-            }
-        }
-        return true;
+        return enemies.living() == 0;
     }
 
     /**
      * This method activates all enemies in the room.
      */
     public void activateEnemies() {
-        for (Enemy enemy : enemies) {
-            enemy.setActive(true);
-        }
+        GameEvents.EnemyActivation event = new GameEvents.EnemyActivation();
+        event.begin();
+        EntitySystems.activateEnemies(this);
+        event.room = name;
+        event.enemiesActivated = enemies.size();
+        event.commit();
     }
 
     /**
@@ -1,116 +1,76 @@
 import bagel.*;
-import bagel.util.Point;
-import bagel.util.Vector2;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 
 /**
  * This class represents a bullet projectile fired by the player.
  * Bullets move in a straight line, damage enemies, and interact with obstacles.
+ * Live bullets are kept in the {@link ProjectileStore} of their World.
  */
-public class Bullet extends Projectile {
-    private static final Image BULLET_IMAGE = new Image("res/bullet.png");
-    private static final double SPEED = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("bulletSpeed")); // pixels per frame
-    private static final int FIRE_RATE = Integer.parseInt(ShadowDungeon.getGameProps().getProperty("bulletFreq"));   // frames between bullets
+public final class Bullet {
+    private static final Texture BULLET_IMAGE = TextureRegistry.get("res/bullet.png");
 
-    private final double damage;
-    private static int cooldown = 0;
-    private static final List<Bullet> bullets = new ArrayList<>();
-
-    /**
-     * This method constructs a Bullet object at the specified starting position,
-     * moving toward a target location based on player input.
-     *
-     * @param start  The starting position of the bullet
-     * @param target The target position the bullet is fired toward
-     * @param player The player who fired the bullet
-     */
-    public Bullet(Point start, Point target, Player player) {
-        super(start);
-        setImage(BULLET_IMAGE);
-
-        // Compute direction vector toward target
-        Vector2 dir = target.asVector().sub(start.asVector());
-        direction = dir.normalised();
-        this.active = true;
-        this.damage = player.getWeapon().getDamage();
-    }
-
-    /**
-     * This method updates the bullet's position, checks for collisions,
-     * and draws the bullet if still active.
-     *
-     * @param player     The player object
-     * @param obstacles  The list of obstacles in the room
-     * @param doors      The list of doors in the room
-     * @param enemies    The list of enemies in the room
-     */
-    public void update(Player player, List<ObstacleObject> obstacles, List<Door> doors, List<Enemy> enemies) {
-        if (!active) return;
-
-        double newX = getPosition().x + direction.x * SPEED;
-        double newY = getPosition().y + direction.y * SPEED;
-        move(newX, newY);
-
-        // Remove bullet if it goes off-screen
-        if (newX < 0 || newX > Window.getWidth() || newY < 0 || newY > Window.getHeight()) {
-            deactivate();
-            return;
-        }
-
-        // Deactivate bullet upon collision
-        if (checkCollision(player, obstacles, doors, enemies)) {
-            deactivate();
-            return;
-        }
-
-        draw();
+    private Bullet() {
     }
 
     /**
-     * This method checks for collisions between the bullet and
+     * This method checks for collisions between a stored bullet and
      * other objects such as obstacles, doors, or enemies.
+     * Only entities sharing a grid cell with the bullet are tested, in list order.
      *
-     * @param player    The player object (for coin gain)
-     * @param obstacles The list of obstacles to check collisions with
-     * @param doors     The list of doors in the room
-     * @param enemies   The list of enemies in the room
+     * @param store  The projectile store holding the bullet
+     * @param index  The index of the bullet in the projectile store
+     * @param player The player object (for coin gain)
+     * @param room   The room holding the obstacles, doors and enemies
      * @return true if a collision occurred, false otherwise
      */
-    private boolean checkCollision(Player player, List<ObstacleObject> obstacles, List<Door> doors, List<Enemy> enemies) {
-
-        for (ObstacleObject obstacle : obstacles) {
-            if (!obstacle.isActive()) continue;
-
-            if (obstacle instanceof Wall) {
-                if (hasCollidedWithObject(obstacle)) return true;
+    static boolean checkCollision(ProjectileStore store, int index, Player player, Room room) {
+        double width = BULLET_IMAGE.getWidth();
+        double height = BULLET_IMAGE.getHeight();
+        double left = store.x[index] - width / 2;
+        double top = store.y[index] - height / 2;
+        double right = store.x[index] + width / 2;
+        double bottom = store.y[index] + height / 2;
+
+        // The wall layer is checked where the walls used to sit among the obstacles
+        EntityStore entities = room.entities;
+        boolean wallsChecked = false;
+        int count = room.obstacleGrid.query(left, top, right, bottom);
+        for (int i = 0; i < count; i++) {
+            int id = room.obstacleGrid.resultAt(i);
+            if (!wallsChecked && id >= room.wallLayerOrder) {
+                wallsChecked = true;
+                if (room.wallLayer.overlaps(left, top, right, bottom)) return true;
             }
 
-            if (obstacle instanceof Table) {
-                if (hasCollidedWithObject(obstacle)) {
-                    obstacle.deactivate();
-                    return true;
-                }
-            }
+            if (!entities.active[id]) continue;
+            if (!GameObject.intersects(left, top, width, height, entities.sprite[id], entities.x[id], entities.y[id])) continue;
 
-            if (obstacle instanceof Basket) {
-                if (hasCollidedWithObject(obstacle)) {
-                    obstacle.deactivate();
-                    player.earnCoins(((Basket) obstacle).getCoinValue());
-                    return true;
-                }
+            // Solids with health break on the first hit and pay any reward; the rest just stop the bullet.
+            // Broken ones leave the obstacle view but stay in the grid, since they still stop fireballs.
+            if (entities.has(id, EntityStore.HEALTH)) {
+                entities.remove(id);
+                if (room.flowField != null) room.flowField.invalidate();
+                if (entities.has(id, EntityStore.REWARD)) player.earnCoins(entities.coins[id]);
             }
+            return true;
         }
 
-        for (Door door : doors) {
-            if (!door.isUnlocked() && hasCollidedWithDoor(door)) return true;
+        if (!wallsChecked && room.wallLayer.overlaps(left, top, right, bottom)) return true;
+
+        count = room.doorGrid.query(left, top, right, bottom);
+        for (int i = 0; i < count; i++) {
+            Door door = room.doors.get(room.doorGrid.resultAt(i));
+            if (!door.isUnlocked() && GameObject.intersects(left, top, width, height,
+                    door.getImage(), door.getPosition().x, door.getPosition().y)) {
+                return true;
+            }
         }
 
-        for (Enemy enemy : enemies) {
-            if (!enemy.isActive()) continue;
-            if (hasCollidedWithObject(enemy)) {
-                enemy.takeDamage(damage);
+        count = room.enemyGrid.query(left, top, right, bottom);
+        for (int i = 0; i < count; i++) {
+            int id = room.enemyGrid.resultAt(i);
+            if (!entities.active[id]) continue;
+            if (GameObject.intersects(left, top, width, height, entities.sprite[id], entities.x[id], entities.y[id])) {
+                entities.takeDamage(id, store.damage[index]);
                 return true;
             }
         }
@@ -121,69 +81,64 @@ public class Bullet extends Projectile {
     /**
      * This method handles player input, firing rate control,
      * and bullet creation when the player shoots.
+     * No bullet is fired when the store is at its bullet capacity.
      *
-     * @param input          The input object tracking mouse actions
-     * @param playerPosition The current position of the player
-     * @param player         The player firing the bullet
+     * @param world  The session the bullet is fired in
+     * @param input  The input object tracking mouse actions
+     * @param player The player firing the bullet
      */
-    public static void handleFiring(Input input, Point playerPosition, Player player) {
-        tickCooldown();
+    public static void handleFiring(World world, GameInput input, Player player) {
+        if (world.bulletCooldown > 0) world.bulletCooldown--;
 
-        if ((input.isDown(MouseButtons.RIGHT) || input.isDown(MouseButtons.LEFT)) && canFire()) {
-            Point target = new Point(input.getMouseX(), input.getMouseY());
-            bullets.add(new Bullet(playerPosition, target, player));
-            resetCooldown();
+        if ((input.isDown(MouseButtons.RIGHT) || input.isDown(MouseButtons.LEFT)) && world.bulletCooldown <= 0) {
+            world.projectiles.spawn(ProjectileStore.BULLET, player.getX(), player.getY(),
+                    input.getMouseX(), input.getMouseY(), player.getWeaponDamage());
+            world.bulletCooldown = world.config.bulletFreq;
         }
     }
 
     /**
-     * This method updates and draws all active bullets each frame.
-     * Inactive bullets are removed from the list.
+     * This method moves, collides and draws all active bullets each frame.
+     * Bullets that leave the screen or hit something are removed from the store.
      *
-     * @param player     The player object
-     * @param obstacles  The list of obstacles in the room
-     * @param doors      The list of doors in the room
-     * @param enemies    The list of enemies in the room
+     * @param player The player object
+     * @param room   The room the bullets are travelling through
      */
-    public static void updateAll(Player player, List<ObstacleObject> obstacles, List<Door> doors, List<Enemy> enemies) {
-        Iterator<Bullet> instance = bullets.iterator();
-        while (instance.hasNext()) {
-            Bullet bullet = instance.next();
-            bullet.update(player, obstacles, doors, enemies);
-            if (!bullet.isActive()) {
-                instance.remove();
+    public static void updateAll(Player player, Room room) {
+        ProjectileStore store = room.world.projectiles;
+        double speed = room.world.config.bulletSpeed;
+        store.move(ProjectileStore.BULLET, speed, room.world.screenWidth, room.world.screenHeight);
+
+        for (int i = 0; i < store.size(); i++) {
+            if (store.type[i] != ProjectileStore.BULLET || !store.alive[i]) continue;
+
+            if (checkCollision(store, i, player, room)) {
+                store.alive[i] = false;
+            } else {
+                RenderQueue.draw(RenderQueue.PROJECTILES, BULLET_IMAGE,
+                        store.x[i] - store.dx[i] * speed, store.y[i] - store.dy[i] * speed, store.x[i], store.y[i]);
             }
         }
-    }
 
-    /**
-     * This method decrements the firing cooldown counter.
-     */
-    private static void tickCooldown() {
-        if (cooldown > 0) cooldown--;
+        store.removeDead(ProjectileStore.BULLET);
     }
 
     /**
-     * This method checks if the player can fire another bullet.
+     * This method returns how many shots were dropped because the bullet capacity was reached.
      *
-     * @return true if the cooldown has expired
+     * @param world The session to count for
+     * @return The number of dropped shots
      */
-    private static boolean canFire() {
-        return cooldown <= 0;
+    public static int getPoolExhaustedCount(World world) {
+        return world.projectiles.exhaustedCount(ProjectileStore.BULLET);
     }
 
-    /**
-     * This method resets the cooldown after a bullet is fired.
-     */
-    private static void resetCooldown() {
-        cooldown = FIRE_RATE;
-    }
-
-
     /**
      * This method clears all active bullets from the game.
+     *
+     * @param world The session to clear
      */
-    public static void clearAll() {
-        bullets.clear();
+    public static void clearAll(World world) {
+        world.projectiles.clear(ProjectileStore.BULLET);
     }
 }
\ No newline at end of file
@@ -1,4 +1,3 @@
-import bagel.Image;
 import bagel.util.Point;
 
 /**
@@ -7,40 +6,46 @@ import bagel.util.Point;
  * between rooms when the player collides with it.
  */
 public class Door {
+    private final World world;
     private final Point position;
-    private Image image;
-    public final String toRoomName;
+    private Texture image;
+    public final int toRoom;        // Id of the room this door leads to
+    public final int arrivalDoor;   // Index of the door the player arrives at in that room
     public BattleRoom battleRoom; // Only set if this door is inside a Battle Room
     private boolean unlocked = false;
     private boolean justEntered = false; // True when the player has just entered this room
     private boolean shouldLockAgain = false;
 
-    private static final Image LOCKED = new Image("res/locked_door.png");
-    private static final Image UNLOCKED = new Image("res/unlocked_door.png");
+    private static final Texture LOCKED = TextureRegistry.get("res/locked_door.png");
+    private static final Texture UNLOCKED = TextureRegistry.get("res/unlocked_door.png");
 
     /**
      * This constructor creates a door at a specified position that leads to another room.
      *
-     * @param position   The position of the door
-     * @param toRoomName The name of the room this door connects to
+     * @param world       The session the door is part of
+     * @param position    The position of the door
+     * @param toRoom      The id of the room this door connects to
+     * @param arrivalDoor The index of the door the player arrives at in that room
      */
-    public Door(Point position, String toRoomName) {
-        this.position = position;
-        this.image = LOCKED;
-        this.toRoomName = toRoomName;
+    public Door(World world, Point position, int toRoom, int arrivalDoor) {
+        this(world, position, toRoom, arrivalDoor, null);
     }
 
     /**
      * This constructor creates a door inside a Battle Room.
      *
+     * @param world       The session the door is part of
      * @param position    The position of the door
-     * @param toRoomName  The name of the room this door connects to
-     * @param battleRoom  The BattleRoom this door belongs to
+     * @param toRoom      The id of the room this door connects to
+     * @param arrivalDoor The index of the door the player arrives at in that room
+     * @param battleRoom  The BattleRoom this door belongs to, or null
      */
-    public Door(Point position, String toRoomName, BattleRoom battleRoom) {
+    public Door(World world, Point position, int toRoom, int arrivalDoor, BattleRoom battleRoom) {
+        this.world = world;
         this.position = position;
         this.image = LOCKED;
-        this.toRoomName = toRoomName;
+        this.toRoom = toRoom;
+        this.arrivalDoor = arrivalDoor;
         this.battleRoom = battleRoom;
     }
 
@@ -62,7 +67,7 @@ public class Door {
      * This method draws the door image on the screen.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        RenderQueue.draw(RenderQueue.OBSTACLES, image, position.x, position.y);
     }
 
     /**
@@ -83,8 +88,8 @@ public class Door {
      * @return True if the player intersects with the door
      */
     public boolean hasCollidedWith(Player player) {
-        return image.getBoundingBoxAt(position)
-                .intersects(player.getCurrImage().getBoundingBoxAt(player.getPosition()));
+        return GameObject.intersects(position.x - image.getWidth() / 2, position.y - image.getHeight() / 2,
+                image.getWidth(), image.getHeight(), player.getCurrImage(), player.getX(), player.getY());
     }
 
     /**
@@ -95,11 +100,11 @@ public class Door {
     private void onCollideWith(Player player) {
         // When the player just entered this room, ignore door transition
         if (unlocked && !justEntered) {
-            ShadowDungeon.changeRoom(toRoomName);
+            world.changeRoom(toRoom, arrivalDoor);
         }
         // If the door is locked, push the player back
         if (!unlocked) {
-            player.move(player.getPrevPosition().x, player.getPrevPosition().y);
+            player.move(player.getPrevX(), player.getPrevY());
         }
     }
 
@@ -159,7 +164,7 @@ public class Door {
      *
      * @return The door's image
      */
-    public Image getImage() {
+    public Texture getImage() {
         return image;
     }
 }
@@ -1,45 +1,39 @@
-import bagel.Input;
-import java.util.Map;
-import java.util.Properties;
 
 /**
  * Represents the final room of the game where the ending sequence occurs.
- * The EndRoom contains a single door and a restart area that allows
+ * The EndRoom contains its doors and a restart area that allows
  * the player to restart after finishing the game.
  */
 public class EndRoom extends Room {
-    private Door door;
     private RestartArea restartArea;
     public boolean isGameOver = false;
 
+    /**
+     * This method constructs an empty End Room.
+     *
+     * @param world The session the room is part of
+     * @param id    The room's id in the room graph
+     */
+    public EndRoom(World world, int id) {
+        super(world, id);
+    }
+
     /**
      * This method initializes all entities that belong to the End Room.
-     * It reads from the game properties to create doors and restart areas.
+     * It reads the room's placements to create doors and restart areas.
      *
-     * @param gameProperties The set of game configuration properties
+     * @param config The game configuration
      */
     @Override
-    public void initEntities(Properties gameProperties) {
-        String roomSuffix = "." + ShadowDungeon.END_ROOM_NAME;
-
-        for (Map.Entry<Object, Object> entry : gameProperties.entrySet()) {
-            if (entry.getKey().toString().contains(roomSuffix)) {
-                String objectType = entry.getKey().toString()
-                        .substring(0, entry.getKey().toString().length() - roomSuffix.length());
-                String propertyValue = entry.getValue().toString();
+    public void initEntities(GameConfig config) {
+        addDoors(null);
 
-                switch (objectType) {
-                    case "door":
-                        String[] coords = propertyValue.split(",");
-                        door = new Door(IOUtils.parseCoords(propertyValue), coords[2]);
-                        doors.add(door);
-                        break;
-                    case "restartarea":
-                        restartArea = new RestartArea(IOUtils.parseCoords(propertyValue));
-                        break;
-                }
-            }
+        GameConfig.Placement restartPlacement = config.getRoomEntity(name, "restartarea");
+        if (restartPlacement != null) {
+            restartArea = new RestartArea(world, restartPlacement.toPoint());
         }
+
+        buildCollisionGrids();
     }
 
     /**
@@ -49,22 +43,27 @@ public class EndRoom extends Room {
      * @param input The current user input
      */
     @Override
-    public void update(Input input) {
+    public void update(GameInput input) {
+        FrameProfiler profiler = world.profiler;
+        long time = profiler.start();
+
         // Handle shop or store state
         checkStoreState(input);
+        time = profiler.lap(FrameProfiler.STORE, time);
         if (paused) return;
 
         // Draw the ending message (shown when game is complete)
         UserInterface.drawEndMessage(!isGameOver);
+        time = profiler.lap(FrameProfiler.UI, time);
 
-        // Lock the door once the game is over
+        // Lock the doors once the game is over
         if (isGameOver) {
-            door.lock();
+            for (int i = 0; i < doors.size(); i++) doors.get(i).lock();
         }
 
-        // Update and draw the door
-        door.update(player);
-        door.draw();
+        // Update and draw the doors
+        updateDoors();
+        time = profiler.lap(FrameProfiler.DOORS, time);
         if (stopUpdatingEarlyIfNeeded()) return;
 
         // Update and draw the restart area
@@ -76,21 +75,11 @@ public class EndRoom extends Room {
             player.update(input);
             player.draw();
         }
+        time = profiler.lap(FrameProfiler.PLAYER, time);
 
         // Handle all bullet interactions (e.g. projectiles, obstacles, enemies)
-        handleBullets(input, obstacles, doors, enemies);
-    }
-
-    /**
-     * This method finds the door in the End Room by its destination.
-     * Since there is only one door in this room, it returns that door.
-     *
-     * @param roomName The name of the room the door leads to
-     * @return The door in this room
-     */
-    @Override
-    public Door findDoorByDestination(String roomName) {
-        return door;
+        handleBullets(input);
+        profiler.lap(FrameProfiler.BULLETS, time);
     }
 
     /**
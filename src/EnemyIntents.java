@@ -0,0 +1,57 @@
+import java.util.Arrays;
+
+/**
+ * What a room's enemies decided to do on a tick, written by the think phase
+ * of {@link EntitySystems#updateEnemies} and carried out by its apply phase.
+ * Each array is indexed by position in the room's enemy view, so enemies
+ * thinking on different threads never write the same slot.
+ *
+ * The think phase sees the player through the snapshot taken by begin, not
+ * the live player, since the apply phase may move them (a fatal hit sends the
+ * player to the game over room).
+ */
+public class EnemyIntents {
+    // Snapshot of the player at the start of the tick
+    public double playerX;
+    public double playerY;
+    public Texture playerImage;
+
+    public int[] ticks = new int[0];            // Ticks the enemy thought for; 0 if it did not think
+    public boolean[] contact = new boolean[0];  // Whether it touched the snapshot player
+    public boolean[] fire = new boolean[0];     // Whether it fires a fireball at the player
+    public double[] fromX = new double[0];      // Where it stood before moving, for contact re-checks
+    public double[] fromY = new double[0];
+
+    /**
+     * This method prepares for a tick: it makes room for every enemy and takes the player snapshot.
+     *
+     * @param enemies The number of enemies in the room's view
+     * @param player  The player, or null if the room has none
+     */
+    public void begin(int enemies, Player player) {
+        if (enemies > ticks.length) {
+            int size = Math.max(enemies, ticks.length * 2);
+            ticks = Arrays.copyOf(ticks, size);
+            contact = Arrays.copyOf(contact, size);
+            fire = Arrays.copyOf(fire, size);
+            fromX = Arrays.copyOf(fromX, size);
+            fromY = Arrays.copyOf(fromY, size);
+        }
+        if (player != null) {
+            playerX = player.getX();
+            playerY = player.getY();
+            playerImage = player.getCurrImage();
+        }
+    }
+
+    /**
+     * This method checks whether the player has moved or changed image since the snapshot,
+     * which makes the contact intents stale.
+     *
+     * @param player The player
+     * @return true if the snapshot no longer matches the player
+     */
+    public boolean isStale(Player player) {
+        return player.getX() != playerX || player.getY() != playerY || player.getCurrImage() != playerImage;
+    }
+}
@@ -0,0 +1,466 @@
+import bagel.util.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entity-component storage for everything in a room that is not a door, the
+ * player or a projectile. An entity is an index into dense, parallel
+ * component arrays; which components it has is recorded in a bit mask.
+ * Indices are never reused, so they are stable and ascending indices are
+ * creation order.
+ *
+ * Systems (see {@link EntitySystems}) reach entities through {@link View}s,
+ * which list the entities that have a set of components and a collider type.
+ * Views are filled as entities are created, and entities that are removed
+ * (killed enemies, opened boxes, collected keys, broken props) leave them at
+ * the next {@link #compact()}, so iterating one only visits entities that
+ * are still in play.
+ */
+public class EntityStore {
+    // Components
+    public static final int POSITION = 1;   // x, y and the position last drawn at
+    public static final int SPRITE = 2;     // image and render layer
+    public static final int HEALTH = 4;     // health and whether the entity died
+    public static final int COLLIDER = 8;   // how the entity reacts to touching the player
+    public static final int AI = 16;        // shooting or patrolling behaviour
+    public static final int REWARD = 32;    // coins paid when the entity is destroyed, opened or killed
+    public static final int DROPS_KEY = 64; // leaves a key behind when killed
+
+    // Collider types
+    public static final int ANY_COLLIDER = -1;
+    public static final int SOLID = 0;      // pushes the player back; walls, tables and baskets
+    public static final int HAZARD = 1;     // hurts the player standing on it, unless a marine
+    public static final int LOCKED = 2;     // opened with a key to pay its reward
+    public static final int PICKUP = 3;     // collected on touch
+    public static final int HURTS = 4;      // hurts the player on contact; enemies
+
+    // AI types
+    public static final int SHOOTER = 0;    // fires at the player whenever its cooldown runs out
+    public static final int PATROL = 1;     // walks a looped route
+    public static final int CHASE = 2;      // walks toward the player along the room's flow field
+
+    // Archetypes, kept for debugging and tools; systems only look at components
+    public static final int BULLET_KIN = 0;
+    public static final int ASHEN_BULLET_KIN = 1;
+    public static final int KEY_BULLET_KIN = 2;
+    public static final int WALL = 3;
+    public static final int TABLE = 4;
+    public static final int BASKET = 5;
+    public static final int RIVER = 6;
+    public static final int TREASURE_BOX = 7;
+    public static final int KEY = 8;
+    public static final int CHASER_BULLET_KIN = 9;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private int size = 0;
+    private final List<View> views = new ArrayList<>();
+
+    public int[] kind = new int[INITIAL_CAPACITY];
+    public int[] mask = new int[INITIAL_CAPACITY];
+    public boolean[] active = new boolean[INITIAL_CAPACITY];
+    public boolean[] removed = new boolean[INITIAL_CAPACITY];  // Gone for good; dropped from the views on compaction
+
+    // POSITION
+    public double[] x = new double[INITIAL_CAPACITY];
+    public double[] y = new double[INITIAL_CAPACITY];
+    public double[] drawnX = new double[INITIAL_CAPACITY];
+    public double[] drawnY = new double[INITIAL_CAPACITY];
+
+    // SPRITE
+    public Texture[] sprite = new Texture[INITIAL_CAPACITY];
+    public int[] layer = new int[INITIAL_CAPACITY];
+
+    // HEALTH
+    public double[] health = new double[INITIAL_CAPACITY];
+    public boolean[] dead = new boolean[INITIAL_CAPACITY];
+
+    // COLLIDER
+    public int[] collider = new int[INITIAL_CAPACITY];
+    public double[] contactDamage = new double[INITIAL_CAPACITY];
+
+    // AI
+    public int[] ai = new int[INITIAL_CAPACITY];
+    public double[] firingRate = new double[INITIAL_CAPACITY];  // Ticks between shots
+    public int[] cooldown = new int[INITIAL_CAPACITY];          // Ticks until the next shot
+    public double[] speed = new double[INITIAL_CAPACITY];       // Distance walked per tick
+    public PatrolRoute[] route = new PatrolRoute[INITIAL_CAPACITY];
+    public double[] travelled = new double[INITIAL_CAPACITY];   // Distance along the route, within one lap
+    public int[] segment = new int[INITIAL_CAPACITY];           // The route segment last walked on
+
+    // REWARD
+    public double[] coins = new double[INITIAL_CAPACITY];
+
+    /**
+     * This method creates an entity with a position and a sprite.
+     * Further components are added with the other add methods before the entity is used.
+     *
+     * @param kind     The archetype of the entity
+     * @param position The position of the entity
+     * @param image    The image of the entity
+     * @param layer    The render layer the entity is drawn in
+     * @param active   Whether the entity starts active
+     * @return The id of the new entity
+     */
+    public int create(int kind, Point position, Texture image, int layer, boolean active) {
+        if (size == this.kind.length) grow();
+        int id = size++;
+        this.kind[id] = kind;
+        this.mask[id] = POSITION | SPRITE;
+        this.active[id] = active;
+        x[id] = drawnX[id] = position.x;
+        y[id] = drawnY[id] = position.y;
+        sprite[id] = image;
+        this.layer[id] = layer;
+        return id;
+    }
+
+    /**
+     * This method gives an entity health.
+     *
+     * @param id     The entity
+     * @param health The starting health
+     */
+    public void addHealth(int id, double health) {
+        this.health[id] = health;
+        addComponents(id, HEALTH);
+    }
+
+    /**
+     * This method gives an entity a collider.
+     *
+     * @param id            The entity
+     * @param type          The collider type, such as SOLID or HAZARD
+     * @param contactDamage The damage dealt to the player per tick of contact, if the type deals any
+     */
+    public void addCollider(int id, int type, double contactDamage) {
+        collider[id] = type;
+        this.contactDamage[id] = contactDamage;
+        addComponents(id, COLLIDER);
+    }
+
+    /**
+     * This method makes an entity fire at the player.
+     *
+     * @param id         The entity
+     * @param firingRate The ticks between shots
+     */
+    public void addShooter(int id, double firingRate) {
+        ai[id] = SHOOTER;
+        this.firingRate[id] = firingRate;
+        cooldown[id] = 0;   // Ready to shoot immediately
+        addComponents(id, AI);
+    }
+
+    /**
+     * This method makes an entity walk a looped route, and moves it to its starting point on the route.
+     *
+     * @param id    The entity
+     * @param route The route
+     * @param speed The distance walked per tick
+     * @param phase The distance along the route to start at
+     */
+    public void addPatrol(int id, PatrolRoute route, double speed, double phase) {
+        ai[id] = PATROL;
+        this.route[id] = route;
+        this.speed[id] = speed;
+        travelled[id] = route.wrap(phase);
+        segment[id] = route.segmentAt(travelled[id], 0);
+        x[id] = drawnX[id] = route.xAt(segment[id], travelled[id]);
+        y[id] = drawnY[id] = route.yAt(segment[id], travelled[id]);
+        addComponents(id, AI);
+    }
+
+    /**
+     * This method makes an entity chase the player around obstacles (see {@link FlowField}).
+     *
+     * @param id    The entity
+     * @param speed The distance walked per tick
+     */
+    public void addChaser(int id, double speed) {
+        ai[id] = CHASE;
+        this.speed[id] = speed;
+        addComponents(id, AI);
+    }
+
+    /**
+     * This method gives an entity a coin reward.
+     *
+     * @param id    The entity
+     * @param coins The coins paid
+     */
+    public void addReward(int id, double coins) {
+        this.coins[id] = coins;
+        addComponents(id, REWARD);
+    }
+
+    /**
+     * This method makes an entity leave a key behind when it is killed.
+     *
+     * @param id The entity
+     */
+    public void addKeyDrop(int id) {
+        addComponents(id, DROPS_KEY);
+    }
+
+    /**
+     * This method returns a view of the entities that have some components and a collider type.
+     * The view keeps itself up to date as entities are created.
+     *
+     * @param components   The components every entity in the view has
+     * @param colliderType The collider type, or ANY_COLLIDER
+     * @return The view
+     */
+    public View view(int components, int colliderType) {
+        View view = new View(components, colliderType);
+        for (int id = 0; id < size; id++) view.offer(this, id);
+        views.add(view);
+        return view;
+    }
+
+    /**
+     * This method removes an entity for good. It is deactivated at once, and
+     * leaves every view at the next compaction, so views being iterated keep their positions.
+     *
+     * @param id The entity
+     */
+    public void remove(int id) {
+        if (removed[id]) return;
+        active[id] = false;
+        removed[id] = true;
+        for (int i = 0; i < views.size(); i++) {
+            View view = views.get(i);
+            if (view.matches(this, id, mask[id])) view.removals++;
+        }
+    }
+
+    /**
+     * This method drops the entities removed since the last call from every view,
+     * keeping the order of the rest. Call it where no view is being iterated,
+     * such as the start of a room update.
+     */
+    public void compact() {
+        for (int i = 0; i < views.size(); i++) {
+            views.get(i).compact(this);
+        }
+    }
+
+    /**
+     * This method returns the number of entities ever created.
+     *
+     * @return The number of entities
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method checks whether an entity has all of a set of components.
+     *
+     * @param id         The entity
+     * @param components The components
+     * @return true if the entity has them all
+     */
+    public boolean has(int id, int components) {
+        return (mask[id] & components) == components;
+    }
+
+    /**
+     * This method checks whether an entity's sprite overlaps the player.
+     *
+     * @param id     The entity
+     * @param player The player
+     * @return true if they overlap
+     */
+    public boolean hasCollidedWith(int id, Player player) {
+        return overlaps(id, x[id], y[id], player.getCurrImage(), player.getX(), player.getY());
+    }
+
+    /**
+     * This method checks whether an entity's sprite, placed at a given position, overlaps another image.
+     *
+     * @param id      The entity
+     * @param atX     The x-coordinate to place the entity at
+     * @param atY     The y-coordinate to place the entity at
+     * @param image   The other image
+     * @param imageX  The x-coordinate of the centre of the other image
+     * @param imageY  The y-coordinate of the centre of the other image
+     * @return true if they overlap
+     */
+    public boolean overlaps(int id, double atX, double atY, Texture image, double imageX, double imageY) {
+        Texture own = sprite[id];
+        return GameObject.intersects(atX - own.getWidth() / 2, atY - own.getHeight() / 2,
+                own.getWidth(), own.getHeight(), image, imageX, imageY);
+    }
+
+    /**
+     * This method queues an entity's sprite, blended from where it was drawn on the previous tick.
+     *
+     * @param id The entity
+     */
+    public void draw(int id) {
+        RenderQueue.draw(layer[id], sprite[id], drawnX[id], drawnY[id], x[id], y[id]);
+        drawnX[id] = x[id];
+        drawnY[id] = y[id];
+    }
+
+    /**
+     * This method applies damage to an entity with health and marks it dead at zero.
+     *
+     * @param id     The entity
+     * @param damage The damage
+     */
+    public void takeDamage(int id, double damage) {
+        health[id] -= damage;
+        if (health[id] <= 0 && !dead[id]) {
+            dead[id] = true;
+            if (removed[id]) return;
+            for (int i = 0; i < views.size(); i++) {
+                View view = views.get(i);
+                if (view.matches(this, id, mask[id])) {
+                    view.deaths++;
+                    view.died++;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method returns the position of an entity as a Point.
+     *
+     * @param id The entity
+     * @return A new Point at the entity's position
+     */
+    public Point getPosition(int id) {
+        return new Point(x[id], y[id]);
+    }
+
+    private void addComponents(int id, int components) {
+        int before = mask[id];
+        mask[id] |= components;
+        for (View view : views) {
+            if (!view.matches(this, id, before)) view.offer(this, id);
+        }
+    }
+
+    private void grow() {
+        int capacity = kind.length * 2;
+        kind = Arrays.copyOf(kind, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+        active = Arrays.copyOf(active, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        drawnX = Arrays.copyOf(drawnX, capacity);
+        drawnY = Arrays.copyOf(drawnY, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+        layer = Arrays.copyOf(layer, capacity);
+        health = Arrays.copyOf(health, capacity);
+        dead = Arrays.copyOf(dead, capacity);
+        collider = Arrays.copyOf(collider, capacity);
+        contactDamage = Arrays.copyOf(contactDamage, capacity);
+        ai = Arrays.copyOf(ai, capacity);
+        firingRate = Arrays.copyOf(firingRate, capacity);
+        cooldown = Arrays.copyOf(cooldown, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        route = Arrays.copyOf(route, capacity);
+        travelled = Arrays.copyOf(travelled, capacity);
+        segment = Arrays.copyOf(segment, capacity);
+        coins = Arrays.copyOf(coins, capacity);
+    }
+
+    /**
+     * The ids of the entities that have a set of components and a collider type,
+     * in the order they gained them, which is creation order for entities set up
+     * straight after creation. Removed entities stay listed until the store compacts.
+     */
+    public static class View {
+        private final int components;
+        private final int colliderType;
+        private int[] ids = new int[8];
+        private int count = 0;
+        private int removals = 0;   // Listed entities removed since the last compaction
+        private int deaths = 0;     // Listed entities that died
+        private int died = 0;       // Entities that died while in the view, listed or not
+
+        View(int components, int colliderType) {
+            this.components = colliderType == ANY_COLLIDER ? components : components | COLLIDER;
+            this.colliderType = colliderType;
+        }
+
+        /**
+         * This method returns the number of entities in the view.
+         *
+         * @return The number of entities
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * This method returns the number of entities in the view that have not died.
+         * Entities without health never die, so for them it is the size.
+         *
+         * @return The number of living entities
+         */
+        public int living() {
+            return count - deaths;
+        }
+
+        /**
+         * This method returns the number of entities that died while in the view, including those since compacted away.
+         *
+         * @return The number of deaths
+         */
+        public int died() {
+            return died;
+        }
+
+        /**
+         * This method returns an entity of the view.
+         *
+         * @param index The position in the view, from 0 to size() - 1
+         * @return The entity id
+         */
+        public int get(int index) {
+            return ids[index];
+        }
+
+        /**
+         * This method checks whether an entity with the given component mask belongs in the view.
+         */
+        boolean matches(EntityStore store, int id, int entityMask) {
+            return (entityMask & components) == components
+                    && (colliderType == ANY_COLLIDER || store.collider[id] == colliderType);
+        }
+
+        /**
+         * This method drops removed entities, keeping the order of the rest.
+         */
+        void compact(EntityStore store) {
+            if (removals == 0) return;
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int id = ids[i];
+                if (!store.removed[id]) {
+                    ids[kept++] = id;
+                } else if (store.dead[id]) {
+                    deaths--;
+                }
+            }
+            count = kept;
+            removals = 0;
+        }
+
+        /**
+         * This method adds an entity if it belongs in the view.
+         * Entities only gain components, so one that is already in stays in.
+         */
+        void offer(EntityStore store, int id) {
+            if (!matches(store, id, store.mask[id])) return;
+            if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+            ids[count++] = id;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+import bagel.Keys;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The behaviour of room entities, as systems over the room's {@link EntityStore}.
+ * Each system walks one view of the store, reading and writing component
+ * arrays, and runs as one phase of a room update.
+ */
+public final class EntitySystems {
+    /** Enemies one fork/join task thinks for before it stops splitting */
+    private static final int THINK_CHUNK = 256;
+
+    private EntitySystems() {
+    }
+
+    /**
+     * This method hurts a player who stands on a hazard and is not a marine.
+     * Hazards are drawn individually when the pre-rendered layers are unavailable.
+     *
+     * @param room   The room
+     * @param player The player
+     * @param draw   true to draw each hazard
+     */
+    public static void updateHazards(Room room, Player player, boolean draw) {
+        EntityStore store = room.entities;
+        EntityStore.View hazards = room.rivers;
+        for (int i = 0; i < hazards.size(); i++) {
+            int id = hazards.get(i);
+            if (store.hasCollidedWith(id, player) && player.getCharacter() != Character.MARINE) {
+                player.receiveDamage(store.contactDamage[id]);
+            }
+            if (draw) store.draw(id);
+        }
+    }
+
+    /**
+     * This method opens a locked entity the player stands on when they press K with a key to spare.
+     *
+     * @param room   The room
+     * @param input  The input for this tick
+     * @param player The player
+     */
+    public static void updateLocks(Room room, GameInput input, Player player) {
+        EntityStore store = room.entities;
+        EntityStore.View locks = room.treasureBoxes;
+        for (int i = 0; i < locks.size(); i++) {
+            int id = locks.get(i);
+            if (!store.active[id]) continue;
+            if (store.hasCollidedWith(id, player) && input.wasPressed(Keys.K) && player.getKeys() > 0) {
+                player.earnCoins(store.coins[id]);
+                store.remove(id);
+                player.useKey();
+            }
+            store.draw(id);
+        }
+    }
+
+    /**
+     * This method pushes the player back out of any solid entity.
+     * Breakable solids are always drawn individually, and the rest only when the
+     * pre-rendered layer is unavailable.
+     *
+     * @param room   The room
+     * @param player The player
+     * @param draw   true to draw the unbreakable solids too
+     */
+    public static void updateSolids(Room room, Player player, boolean draw) {
+        EntityStore store = room.entities;
+        EntityStore.View solids = room.obstacles;
+        for (int i = 0; i < solids.size(); i++) {
+            int id = solids.get(i);
+            if (!store.active[id]) continue;
+            if (store.hasCollidedWith(id, player)) {
+                player.move(player.getPrevX(), player.getPrevY());
+            }
+            if (draw || store.has(id, EntityStore.HEALTH)) store.draw(id);
+        }
+    }
+
+    /**
+     * This method lets the player collect the pickups they walk over.
+     *
+     * @param room   The room
+     * @param player The player
+     */
+    public static void updatePickups(Room room, Player player) {
+        EntityStore store = room.entities;
+        EntityStore.View pickups = room.keys;
+        for (int i = 0; i < pickups.size(); i++) {
+            int id = pickups.get(i);
+            if (!store.active[id]) continue;
+            if (store.hasCollidedWith(id, player)) {
+                player.earnKey();
+                store.remove(id);
+            }
+            store.draw(id);
+        }
+    }
+
+    /**
+     * This method retires enemies that died, paying their rewards, and runs the
+     * contact damage and AI of the rest whose turn it is (see {@link AiScheduler}).
+     * Every active enemy is drawn each tick.
+     *
+     * The update has two phases. In the think phase each enemy reads the player
+     * snapshot and the room's flow field, advances its own cooldown or walk and
+     * records its intents; it touches nothing shared, so in rooms with at least
+     * ai.parallelThreshold enemies it runs in parallel on the common fork/join
+     * pool. The flow field is brought up to date before the phase. The apply phase
+     * then walks the enemies in order on the calling thread, paying rewards,
+     * dealing damage, spawning fireballs and drawing, so the result is the same
+     * however the think phase was split.
+     *
+     * @param room   The room
+     * @param player The player
+     */
+    public static void updateEnemies(Room room, Player player) {
+        int count = room.enemies.size();
+        room.aiScheduler.beginTick(room.entities, room.enemies, player);
+        room.enemyIntents.begin(count, player);
+        if (room.flowField != null && player != null) {
+            room.flowField.update(player.getX(), player.getY());
+        }
+        if (count >= room.world.config.aiParallelThreshold) {
+            ForkJoinPool.commonPool().invoke(new Think(room, 0, count));
+        } else {
+            think(room, 0, count);
+        }
+        apply(room, player);
+        room.aiScheduler.endTick();
+    }
+
+    /**
+     * This method wakes every enemy in the room.
+     *
+     * @param room The room
+     */
+    public static void activateEnemies(Room room) {
+        for (int i = 0; i < room.enemies.size(); i++) {
+            int id = room.enemies.get(i);
+            if (room.entities.removed[id]) continue;
+            room.entities.active[id] = true;
+            room.aiScheduler.wake(id);
+        }
+    }
+
+    /**
+     * This method records the intents of the enemies at positions [from, to) of the room's enemy view.
+     * It writes only the enemies' own components and intent slots.
+     */
+    private static void think(Room room, int from, int to) {
+        EntityStore store = room.entities;
+        EnemyIntents intents = room.enemyIntents;
+        for (int i = from; i < to; i++) {
+            int id = room.enemies.get(i);
+            int ticks = store.active[id] && !store.dead[id] ? room.aiScheduler.thinkingTicks(id) : 0;
+            intents.ticks[i] = ticks;
+            if (ticks == 0) continue;
+
+            intents.fromX[i] = store.x[id];
+            intents.fromY[i] = store.y[id];
+            intents.contact[i] = store.overlaps(id, store.x[id], store.y[id],
+                    intents.playerImage, intents.playerX, intents.playerY);
+            boolean fire = false;
+            switch (store.ai[id]) {
+                case EntityStore.SHOOTER -> fire = coolDown(store, id, ticks);
+                case EntityStore.PATROL -> patrol(store, id, ticks);
+                case EntityStore.CHASE -> {
+                    for (int tick = 0; tick < ticks; tick++) chase(store, id, room.flowField, intents);
+                }
+            }
+            intents.fire[i] = fire;
+        }
+    }
+
+    /**
+     * This method carries out the intents of every enemy, in view order.
+     * Contact is checked again against the live player once a hit has moved them away from the snapshot.
+     */
+    private static void apply(Room room, Player player) {
+        EntityStore store = room.entities;
+        EnemyIntents intents = room.enemyIntents;
+        for (int i = 0; i < room.enemies.size(); i++) {
+            int id = room.enemies.get(i);
+            if (!store.active[id]) continue;
+
+            if (store.dead[id]) {
+                store.remove(id);
+                room.enemyGrid.remove(id);
+                if (store.has(id, EntityStore.DROPS_KEY)) {
+                    Archetypes.key(store, store.getPosition(id));
+                }
+                if (store.has(id, EntityStore.REWARD)) {
+                    switch (player.getCharacter()) {
+                        case MARINE -> player.earnCoins(store.coins[id]);
+                        case ROBOT -> player.earnCoins(store.coins[id] + player.robotBonusCoin);
+                    }
+                }
+            }
+
+            if (store.active[id]) {
+                if (intents.ticks[i] > 0) {
+                    boolean contact = intents.isStale(player)
+                            ? store.overlaps(id, intents.fromX[i], intents.fromY[i],
+                                    player.getCurrImage(), player.getX(), player.getY())
+                            : intents.contact[i];
+                    if (contact) {
+                        player.receiveDamage(store.contactDamage[id]);
+                    }
+                    if (intents.fire[i]) {
+                        Fireball.spawn(room.world, store.x[id], store.y[id], player.getX(), player.getY());
+                    }
+                    room.updateEnemyCell(id);
+                }
+                store.draw(id);
+            }
+        }
+    }
+
+    /**
+     * This method counts a shooter's cooldown down and tells whether it fires.
+     * A shooter that missed ticks counts its cooldown down by all of them and
+     * carries any overshoot into the next cooldown, so it keeps its firing rate.
+     */
+    private static boolean coolDown(EntityStore store, int id, int ticks) {
+        if (store.cooldown[id] > 0) {
+            store.cooldown[id] -= ticks;
+        }
+        if (store.cooldown[id] <= 0) {
+            store.cooldown[id] += (int) store.firingRate[id];
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method walks a patrol some ticks along its looped route.
+     * Its distance only wraps when it completes a lap, which keeps the floating-point
+     * remainder off the per-tick path.
+     */
+    private static void patrol(EntityStore store, int id, int ticks) {
+        PatrolRoute route = store.route[id];
+        double lap = store.travelled[id] + store.speed[id] * ticks;
+        if (lap >= route.getLength()) lap = route.wrap(lap);
+        int segment = route.segmentAt(lap, store.segment[id]);
+        store.travelled[id] = lap;
+        store.segment[id] = segment;
+        store.x[id] = route.xAt(segment, lap);
+        store.y[id] = route.yAt(segment, lap);
+    }
+
+    /**
+     * This method walks a chaser one tick toward the centre of the next cell of the flow field,
+     * or straight at the player from the player's cell or wherever the field does not reach.
+     */
+    private static void chase(EntityStore store, int id, FlowField field, EnemyIntents intents) {
+        int next = field.nextCell(field.cellAt(store.x[id], store.y[id]));
+        double targetX = next < 0 ? intents.playerX : field.centreX(next);
+        double targetY = next < 0 ? intents.playerY : field.centreY(next);
+        double directionX = targetX - store.x[id];
+        double directionY = targetY - store.y[id];
+        double distance = Math.sqrt(directionX * directionX + directionY * directionY);
+        double speed = store.speed[id];
+
+        if (distance <= speed) {
+            store.x[id] = targetX;
+            store.y[id] = targetY;
+        } else {
+            store.x[id] += directionX / distance * speed;
+            store.y[id] += directionY / distance * speed;
+        }
+    }
+
+    /**
+     * Thinks for the enemies at positions [from, to), splitting the range in half down to THINK_CHUNK enemies.
+     */
+    private static class Think extends RecursiveAction {
+        private final Room room;
+        private final int from;
+        private final int to;
+
+        Think(Room room, int from, int to) {
+            this.room = room;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THINK_CHUNK) {
+                think(room, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Think(room, from, middle), new Think(room, middle, to));
+            }
+        }
+    }
+}
@@ -1,132 +1,131 @@
 import bagel.*;
 import bagel.util.Point;
-import bagel.util.Vector2;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 
 /**
  * Represents a fireball projectile fired by enemies.
  * Fireballs travel in a straight line toward a target, dealing damage to the player
  * and deactivating upon collision or leaving the screen.
+ * Live fireballs are kept in the {@link ProjectileStore} of their World.
  */
-public class Fireball extends Projectile {
-    private static final Image FIREBALL_IMAGE = new Image("res/fireball.png");
-    private static final double SPEED = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("fireballSpeed"));
-    private static final double DAMAGE = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("fireballDamage"));
+public final class Fireball {
+    private static final Texture FIREBALL_IMAGE = TextureRegistry.get("res/fireball.png");
 
-    /** List of all active fireballs currently in the game. */
-    private static final List<Fireball> fireballs = new ArrayList<>();
-
-    /**
-     * This method constructs a Fireball that travels from a starting point toward a target point.
-     *
-     * @param start  The initial position of the fireball
-     * @param target The target point the fireball will move toward
-     */
-    public Fireball(Point start, Point target) {
-        super(start);
-        setImage(FIREBALL_IMAGE);
-
-        // Compute normalized direction vector toward target
-        Vector2 direction = target.asVector().sub(start.asVector());
-        this.direction = direction.normalised();
-        this.active = true;
-    }
-
-    /**
-     * This method updates the fireball’s position, handles collisions,
-     * and draws it on the screen if it remains active.
-     *
-     * @param player    The player to check for collisions with
-     * @param obstacles The list of obstacle objects to test for collisions
-     * @param doors     The list of doors to check against
-     */
-    public void update(Player player, List<ObstacleObject> obstacles, List<Door> doors) {
-        if (!active) return;
-
-        // Move fireball
-        double newX = getPosition().x + direction.x * SPEED;
-        double newY = getPosition().y + direction.y * SPEED;
-        move(newX, newY);
-
-        // Remove if off-screen
-        if (newX < 0 || newX > Window.getWidth() || newY < 0 || newY > Window.getHeight()) {
-            deactivate();
-            return;
-        }
-
-        // Check for collisions with obstacles, player, or doors
-        if (checkCollision(player, obstacles, doors)) {
-            deactivate();
-            return;
-        }
-
-        // Draw active fireball
-        draw();
+    private Fireball() {
     }
 
     /**
-     * This method checks for collisions between the fireball and the player,
-     * obstacles, or doors.
+     * This method checks for collisions between a stored fireball and the player,
+     * walls, obstacles, or doors. Only obstacles and doors sharing a grid cell
+     * with the fireball are tested.
      *
-     * @param player    The player to check for collision
-     * @param obstacles The list of obstacles (walls, tables, baskets)
-     * @param doors     The list of doors to check against
+     * @param store  The projectile store holding the fireball
+     * @param index  The index of the fireball in the projectile store
+     * @param player The player to check for collision
+     * @param room   The room holding the obstacles and doors
      * @return true if a collision occurred, false otherwise
      */
-    private boolean checkCollision(Player player, List<ObstacleObject> obstacles, List<Door> doors) {
-        if (hasCollidedWith(player)) {
-            player.receiveDamage(DAMAGE);
+    static boolean checkCollision(ProjectileStore store, int index, Player player, Room room) {
+        double width = FIREBALL_IMAGE.getWidth();
+        double height = FIREBALL_IMAGE.getHeight();
+        double left = store.x[index] - width / 2;
+        double top = store.y[index] - height / 2;
+        double right = store.x[index] + width / 2;
+        double bottom = store.y[index] + height / 2;
+
+        if (GameObject.intersects(left, top, width, height, player.getCurrImage(), player.getX(), player.getY())) {
+            player.receiveDamage(store.damage[index]);
             return true;
         }
 
-        for (ObstacleObject obstacle : obstacles) {
-            if (obstacle instanceof Wall || obstacle instanceof Table || obstacle instanceof Basket) {
-                if (hasCollidedWithObject(obstacle)) return true;
-            }
+        if (room.wallLayer.overlaps(left, top, right, bottom)) return true;
+
+        // Every solid stops fireballs, including broken ones
+        EntityStore entities = room.entities;
+        int count = room.obstacleGrid.query(left, top, right, bottom);
+        for (int i = 0; i < count; i++) {
+            int id = room.obstacleGrid.resultAt(i);
+            if (GameObject.intersects(left, top, width, height, entities.sprite[id], entities.x[id], entities.y[id])) return true;
         }
 
-        for (Door door : doors) {
-            if (!door.isUnlocked() && hasCollidedWithDoor(door)) return true;
+        count = room.doorGrid.query(left, top, right, bottom);
+        for (int i = 0; i < count; i++) {
+            Door door = room.doors.get(room.doorGrid.resultAt(i));
+            if (!door.isUnlocked() && GameObject.intersects(left, top, width, height,
+                    door.getImage(), door.getPosition().x, door.getPosition().y)) {
+                return true;
+            }
         }
 
         return false;
     }
 
     /**
-     * This method creates and adds a new fireball to the active list.
+     * This method adds a fireball to the projectile store.
+     * Nothing is spawned when the store is at its fireball capacity.
      *
+     * @param world  The session to spawn the fireball in
      * @param start  The starting position of the fireball
      * @param target The target position the fireball should move toward
      */
-    public static void spawn(Point start, Point target) {
-        fireballs.add(new Fireball(start, target));
+    public static void spawn(World world, Point start, Point target) {
+        spawn(world, start.x, start.y, target.x, target.y);
+    }
+
+    /**
+     * This method adds a fireball to the projectile store from plain coordinates.
+     *
+     * @param world   The session to spawn the fireball in
+     * @param startX  The x-coordinate to start from
+     * @param startY  The y-coordinate to start from
+     * @param targetX The x-coordinate to travel toward
+     * @param targetY The y-coordinate to travel toward
+     */
+    public static void spawn(World world, double startX, double startY, double targetX, double targetY) {
+        world.projectiles.spawn(ProjectileStore.FIREBALL, startX, startY, targetX, targetY, world.config.fireballDamage);
     }
 
     /**
-     * This method updates all active fireballs, removes inactive ones,
-     * and handles collisions.
+     * This method moves, collides and draws all active fireballs each frame.
+     * Fireballs that leave the screen or hit something are removed from the store.
      *
-     * @param player    The player to check for collisions
-     * @param obstacles The list of obstacles in the room
-     * @param doors     The list of doors in the room
+     * @param player The player to check for collisions
+     * @param room   The room the fireballs are travelling through
      */
-    public static void updateAll(Player player, List<ObstacleObject> obstacles, List<Door> doors) {
-        Iterator<Fireball> instance = fireballs.iterator();
-        while (instance.hasNext()) {
-            Fireball fireball = instance.next();
-            fireball.update(player, obstacles, doors);
-            if (!fireball.isActive()) {
-                instance.remove();
+    public static void updateAll(Player player, Room room) {
+        ProjectileStore store = room.world.projectiles;
+        double speed = room.world.config.fireballSpeed;
+        store.move(ProjectileStore.FIREBALL, speed, room.world.screenWidth, room.world.screenHeight);
+
+        for (int i = 0; i < store.size(); i++) {
+            if (store.type[i] != ProjectileStore.FIREBALL || !store.alive[i]) continue;
+
+            if (checkCollision(store, i, player, room)) {
+                store.alive[i] = false;
+            } else {
+                RenderQueue.draw(RenderQueue.PROJECTILES, FIREBALL_IMAGE,
+                        store.x[i] - store.dx[i] * speed, store.y[i] - store.dy[i] * speed, store.x[i], store.y[i]);
             }
         }
+
+        store.removeDead(ProjectileStore.FIREBALL);
+    }
+
+    /**
+     * This method returns how many spawns were dropped because the fireball capacity was reached.
+     *
+     * @param world The session to count for
+     * @return The number of dropped spawns
+     */
+    public static int getPoolExhaustedCount(World world) {
+        return world.projectiles.exhaustedCount(ProjectileStore.FIREBALL);
     }
 
     /**
      * This method clears all active fireballs (e.g., when changing rooms).
+     *
+     * @param world The session to clear
      */
-    public static void clearAll() {
-        fireballs.clear();
+    public static void clearAll(World world) {
+        world.projectiles.clear(ProjectileStore.FIREBALL);
     }
 }
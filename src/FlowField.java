@@ -0,0 +1,210 @@
+import java.util.Arrays;
+
+/**
+ * Directions toward the player over a grid of square cells covering a room,
+ * shared by every chasing enemy in it. A breadth-first pass from the player's
+ * cell gives each open cell its step distance to the player, and each cell
+ * then points at its nearest-to-the-player neighbour, so steering a chaser is
+ * a single lookup however many chasers there are.
+ *
+ * A cell is blocked when a chaser centred on it would touch a wall or a solid
+ * obstacle, so chasers that walk from cell centre to cell centre never clip
+ * one. Blocked cells still point the shortest way back to open ground. The field is recomputed only when the player enters another cell, and
+ * the blocked cells only when an obstacle is destroyed (see {@link #invalidate}).
+ */
+public class FlowField {
+    private static final int NONE = -1;
+    private static final int[] NEIGHBOUR_COLS = {0, 1, 0, -1, 1, 1, -1, -1};  // Orthogonal first, then diagonal
+    private static final int[] NEIGHBOUR_ROWS = {-1, 0, 1, 0, -1, 1, 1, -1};
+
+    private final Room room;
+    private final int cellSize;
+    private final int cols;
+    private final int rows;
+    private final double halfWidth;
+    private final double halfHeight;
+
+    private final boolean[] blocked;
+    private final int[] distance;     // Steps to the player's cell, through open cells where possible
+    private final int[] next;         // The cell to walk to from each cell; NONE at the goal and next to a blocked goal
+    private final int[] queue;
+    private boolean blockedValid = false;
+    private int goal = NONE;
+    private int rebuilds = 0;
+
+    /**
+     * This constructor creates a field over a room for chasers of the given size.
+     * Nothing is computed until the first update.
+     *
+     * @param room     The room, whose walls and obstacles block the field
+     * @param cellSize The side length of a cell in pixels
+     * @param chaser   The image of the chasers, whose size sets how close to an obstacle they can walk
+     */
+    public FlowField(Room room, int cellSize, Texture chaser) {
+        this.room = room;
+        this.cellSize = cellSize;
+        this.cols = (int) Math.ceil(room.world.screenWidth / cellSize);
+        this.rows = (int) Math.ceil(room.world.screenHeight / cellSize);
+        this.halfWidth = chaser.getWidth() / 2;
+        this.halfHeight = chaser.getHeight() / 2;
+        this.blocked = new boolean[cols * rows];
+        this.distance = new int[cols * rows];
+        this.next = new int[cols * rows];
+        this.queue = new int[cols * rows];
+    }
+
+    /**
+     * This method marks the blocked cells as out of date, after an obstacle was destroyed.
+     * They and the field are recomputed on the next update.
+     */
+    public void invalidate() {
+        blockedValid = false;
+    }
+
+    /**
+     * This method brings the field up to date with the player's position.
+     * It does nothing unless the player changed cell or an obstacle was destroyed.
+     *
+     * @param playerX The x-coordinate of the player
+     * @param playerY The y-coordinate of the player
+     */
+    public void update(double playerX, double playerY) {
+        int cell = cellAt(playerX, playerY);
+        if (blockedValid && cell == goal) return;
+        if (!blockedValid) {
+            computeBlocked();
+            blockedValid = true;
+        }
+        goal = cell;
+        computeField();
+        rebuilds++;
+    }
+
+    /**
+     * This method returns the cell a position lies in.
+     *
+     * @param x The x-coordinate
+     * @param y The y-coordinate
+     * @return The cell, or NONE outside the grid
+     */
+    public int cellAt(double x, double y) {
+        int col = (int) Math.floor(x / cellSize);
+        int row = (int) Math.floor(y / cellSize);
+        if (col < 0 || row < 0 || col >= cols || row >= rows) return NONE;
+        return row * cols + col;
+    }
+
+    /**
+     * This method returns the cell to walk to from a cell.
+     *
+     * @param cell The cell, or NONE
+     * @return The next cell, or NONE when the chaser should walk straight at the player
+     */
+    public int nextCell(int cell) {
+        return cell == NONE ? NONE : next[cell];
+    }
+
+    /** @return The x-coordinate of the centre of a cell */
+    public double centreX(int cell) {
+        return (cell % cols + 0.5) * cellSize;
+    }
+
+    /** @return The y-coordinate of the centre of a cell */
+    public double centreY(int cell) {
+        return (cell / cols + 0.5) * cellSize;
+    }
+
+    /** @return The number of times the field has been computed */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+
+    private void computeBlocked() {
+        EntityStore store = room.entities;
+        for (int cell = 0; cell < blocked.length; cell++) {
+            double left = centreX(cell) - halfWidth;
+            double top = centreY(cell) - halfHeight;
+            double right = centreX(cell) + halfWidth;
+            double bottom = centreY(cell) + halfHeight;
+            boolean hit = room.wallLayer.overlaps(left, top, right, bottom);
+
+            int count = hit ? 0 : room.obstacleGrid.query(left, top, right, bottom);
+            for (int i = 0; i < count && !hit; i++) {
+                int id = room.obstacleGrid.resultAt(i);
+                hit = store.active[id] && GameObject.intersects(left, top, right - left, bottom - top,
+                        store.sprite[id], store.x[id], store.y[id]);
+            }
+            blocked[cell] = hit;
+        }
+    }
+
+    private void computeField() {
+        Arrays.fill(distance, NONE);
+        Arrays.fill(next, NONE);
+        if (goal == NONE) return;
+
+        // Breadth-first over open cells; the goal itself may be blocked when the player hugs a wall
+        int head = 0;
+        int tail = 0;
+        distance[goal] = 0;
+        queue[tail++] = goal;
+        while (head < tail) {
+            int cell = queue[head++];
+            int col = cell % cols;
+            int row = cell / cols;
+            for (int n = 0; n < 4; n++) {
+                int c = col + NEIGHBOUR_COLS[n];
+                int r = row + NEIGHBOUR_ROWS[n];
+                if (c < 0 || r < 0 || c >= cols || r >= rows) continue;
+                int neighbour = r * cols + c;
+                if (blocked[neighbour] || distance[neighbour] != NONE) continue;
+                distance[neighbour] = distance[cell] + 1;
+                queue[tail++] = neighbour;
+            }
+        }
+
+        // Then on into blocked and cut-off cells, so a chaser pushed into one finds its way out
+        for (int i = 0; i < tail; i++) {
+            int cell = queue[i];
+            int col = cell % cols;
+            int row = cell / cols;
+            for (int n = 0; n < 4; n++) {
+                int c = col + NEIGHBOUR_COLS[n];
+                int r = row + NEIGHBOUR_ROWS[n];
+                if (c < 0 || r < 0 || c >= cols || r >= rows) continue;
+                int neighbour = r * cols + c;
+                if (distance[neighbour] != NONE) continue;
+                distance[neighbour] = distance[cell] + 1;
+                queue[tail++] = neighbour;
+            }
+        }
+
+        // Point every cell at its closest neighbour that is nearer the player. Open cells
+        // only step to open cells, and not diagonally past a blocked corner.
+        for (int i = 1; i < tail; i++) {
+            int cell = queue[i];
+            int col = cell % cols;
+            int row = cell / cols;
+            boolean open = isOpen(cell);
+            int best = NONE;
+            int bestDistance = distance[cell];
+            for (int n = 0; n < NEIGHBOUR_COLS.length; n++) {
+                int c = col + NEIGHBOUR_COLS[n];
+                int r = row + NEIGHBOUR_ROWS[n];
+                if (c < 0 || r < 0 || c >= cols || r >= rows) continue;
+                int neighbour = r * cols + c;
+                if (distance[neighbour] >= bestDistance) continue;
+                if (open && (!isOpen(neighbour) || n >= 4 && !(isOpen(row * cols + c) && isOpen(r * cols + col)))) {
+                    continue;   // A diagonal step may not pass a blocked orthogonal neighbour
+                }
+                best = neighbour;
+                bestDistance = distance[neighbour];
+            }
+            next[cell] = best;
+        }
+    }
+
+    private boolean isOpen(int cell) {
+        return !blocked[cell] || cell == goal;
+    }
+}
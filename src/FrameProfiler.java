@@ -0,0 +1,307 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Times the phases of each tick and frame into latency histograms.
+ * Phases are timed as laps: {@link #start()} reads the clock once and each
+ * {@link #lap(int, long)} records the time since the previous one. While the
+ * profiler is off these only test a flag, so the timers can stay in the game loop.
+ * The overlay shows the last second; {@link #getSummary()} covers the whole run.
+ *
+ * With allocation tracking on, every lap also reads the bytes the thread has
+ * allocated so far, and charges the difference to the phase. Lap sequences
+ * nest (a frame holds ticks, a tick holds room phases), so the byte count at
+ * each start or lap is kept on a small stack and looked up by its start time.
+ */
+public class FrameProfiler {
+    // Phases of a room update
+    public static final int STORE = 0;
+    public static final int DOORS = 1;
+    public static final int RIVERS = 2;
+    public static final int TREASURE = 3;
+    public static final int OBSTACLES = 4;
+    public static final int KEYS = 5;
+    public static final int ENEMIES = 6;
+    public static final int PLAYER = 7;
+    public static final int BULLETS = 8;
+    public static final int FIREBALLS = 9;
+    public static final int UI = 10;
+
+    // Phases of a window frame
+    public static final int TICK = 11;
+    public static final int SIMULATION = 12;
+    public static final int RENDER = 13;
+    public static final int FRAME = 14;
+
+    private static final String[] PHASE_NAMES = {"store", "doors", "rivers", "treasure", "obstacles", "keys",
+            "enemies", "player", "bullets", "fireballs", "ui", "tick", "simulation", "render", "frame"};
+    private static final long WINDOW_NANOS = 1_000_000_000L; // Span of the numbers shown in the overlay
+    private static final int ROLLING_LAPS = 60;                // Laps averaged for the rolling allocation rate
+    private static final int MAX_MARKS = 64;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final LatencyHistogram[] total = new LatencyHistogram[PHASE_NAMES.length];
+    private final LatencyHistogram[] recent = new LatencyHistogram[PHASE_NAMES.length];
+    private boolean enabled = false;
+    private long windowStart = 0;
+    private String[] overlayLines = new String[0];
+
+    private boolean trackAllocations = false;
+    private final long[] bytesTotal = new long[PHASE_NAMES.length];
+    private final long[] bytesMax = new long[PHASE_NAMES.length];
+    private final long[] bytesLaps = new long[PHASE_NAMES.length];
+    private final long[][] bytesRecent = new long[PHASE_NAMES.length][ROLLING_LAPS];
+    private final long[] bytesRecentSum = new long[PHASE_NAMES.length];
+    private final long[] markTimes = new long[MAX_MARKS];
+    private final long[] markBytes = new long[MAX_MARKS];
+    private int marks = 0;
+
+    /**
+     * This constructor creates a profiler that is switched off.
+     */
+    public FrameProfiler() {
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            total[i] = new LatencyHistogram();
+            recent[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * This method switches timing on or off. Recorded numbers are kept either way.
+     *
+     * @param enabled true to time phases
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** @return true if phases are being timed */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method switches counting of allocated bytes per phase on or off.
+     * It only has an effect while the profiler is enabled.
+     *
+     * @param trackAllocations true to count allocations
+     * @throws UnsupportedOperationException if the JVM cannot count allocations per thread
+     */
+    public void setAllocationTracking(boolean trackAllocations) {
+        if (trackAllocations) {
+            if (!THREADS.isThreadAllocatedMemorySupported()) {
+                throw new UnsupportedOperationException("This JVM cannot count allocated bytes per thread");
+            }
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.trackAllocations = trackAllocations;
+        marks = 0;
+    }
+
+    /** @return true if allocated bytes are being counted */
+    public boolean isTrackingAllocations() {
+        return trackAllocations;
+    }
+
+    /**
+     * This method starts timing a sequence of phases.
+     *
+     * @return The start time to pass to the first lap, or 0 when the profiler is off
+     */
+    public long start() {
+        if (!enabled) return 0;
+        long now = System.nanoTime();
+        if (trackAllocations) {
+            if (marks == MAX_MARKS) {
+                // The oldest marks are those of finished outermost sequences, never looked up again
+                System.arraycopy(markTimes, MAX_MARKS / 2, markTimes, 0, MAX_MARKS / 2);
+                System.arraycopy(markBytes, MAX_MARKS / 2, markBytes, 0, MAX_MARKS / 2);
+                marks = MAX_MARKS / 2;
+            }
+            markTimes[marks] = now;
+            markBytes[marks++] = THREADS.getCurrentThreadAllocatedBytes();
+        }
+        return now;
+    }
+
+    /**
+     * This method records the time since the previous lap against a phase.
+     *
+     * @param phase The phase that just finished
+     * @param since The value returned by start() or the previous lap
+     * @return The start time for the next lap
+     */
+    public long lap(int phase, long since) {
+        if (!enabled) return 0;
+        long now = System.nanoTime();
+        if (since != 0) {
+            total[phase].record(now - since);
+            recent[phase].record(now - since);
+        }
+        if (trackAllocations) lapAllocations(phase, since, now);
+        return now;
+    }
+
+    /**
+     * This method charges the bytes allocated since a mark to a phase and moves the mark on.
+     * Marks above the one found belong to nested sequences that have finished.
+     */
+    private void lapAllocations(int phase, long since, long now) {
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        int mark = marks - 1;
+        while (mark >= 0 && markTimes[mark] != since) mark--;
+        if (mark < 0) return;
+
+        long allocated = bytes - markBytes[mark];
+        bytesTotal[phase] += allocated;
+        if (allocated > bytesMax[phase]) bytesMax[phase] = allocated;
+        int slot = (int) (bytesLaps[phase]++ % ROLLING_LAPS);
+        bytesRecentSum[phase] += allocated - bytesRecent[phase][slot];
+        bytesRecent[phase][slot] = allocated;
+
+        markTimes[mark] = now;
+        markBytes[mark] = bytes;
+        marks = mark + 1;
+    }
+
+    /**
+     * This method returns the bytes a phase allocated per lap, averaged over its last laps.
+     *
+     * @param phase The phase
+     * @return The rolling average in bytes, or 0 if the phase never ran while counting
+     */
+    public double getRollingBytes(int phase) {
+        long laps = Math.min(bytesLaps[phase], ROLLING_LAPS);
+        return laps == 0 ? 0 : (double) bytesRecentSum[phase] / laps;
+    }
+
+    /**
+     * This method returns the rolling bytes allocated per window frame, or per tick
+     * when there is no window.
+     *
+     * @return The rolling average in bytes
+     */
+    public double getBytesPerFrame() {
+        return getRollingBytes(bytesLaps[FRAME] > 0 ? FRAME : TICK);
+    }
+
+    /**
+     * This method returns the bytes a phase allocated per lap over the whole run.
+     *
+     * @param phase The phase
+     * @return The mean in bytes, or 0 if the phase never ran while counting
+     */
+    public double getMeanBytes(int phase) {
+        return bytesLaps[phase] == 0 ? 0 : (double) bytesTotal[phase] / bytesLaps[phase];
+    }
+
+    /**
+     * This method returns the most bytes a phase allocated in a single lap.
+     *
+     * @param phase The phase
+     * @return The maximum in bytes
+     */
+    public long getMaxBytes(int phase) {
+        return bytesMax[phase];
+    }
+
+    /**
+     * This method returns the number of laps of a phase whose allocations were counted.
+     *
+     * @param phase The phase
+     * @return The number of laps
+     */
+    public long getAllocationLaps(int phase) {
+        return bytesLaps[phase];
+    }
+
+    /**
+     * This method returns the name of a phase as used in summaries and budgets.
+     *
+     * @param phase The phase
+     * @return The phase name
+     */
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    /** @return The number of phases */
+    public static int getPhaseCount() {
+        return PHASE_NAMES.length;
+    }
+
+    /**
+     * This method forgets every recorded time and allocation, for example after a warm-up.
+     */
+    public void reset() {
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            total[i].reset();
+            recent[i].reset();
+            bytesTotal[i] = 0;
+            bytesMax[i] = 0;
+            bytesLaps[i] = 0;
+            bytesRecentSum[i] = 0;
+            Arrays.fill(bytesRecent[i], 0);
+        }
+        marks = 0;
+    }
+
+    /**
+     * This method returns the overlay text, refreshing it once a second from the
+     * phases timed since the last refresh.
+     *
+     * @return One line per phase that ran
+     */
+    public String[] getOverlayLines() {
+        long now = System.nanoTime();
+        if (now - windowStart >= WINDOW_NANOS) {
+            windowStart = now;
+            overlayLines = format(recent);
+            if (trackAllocations) {
+                overlayLines = Arrays.copyOf(overlayLines, overlayLines.length + 1);
+                overlayLines[overlayLines.length - 1] = String.format(Locale.ROOT, "alloc/frame %.0f B",
+                        getBytesPerFrame());
+            }
+            for (LatencyHistogram histogram : recent) histogram.reset();
+        }
+        return overlayLines;
+    }
+
+    /**
+     * This method returns a table of every phase timed during the run.
+     *
+     * @return The summary, one line per phase
+     */
+    public String getSummary() {
+        String summary = "Frame profile (microseconds)\n" + String.join("\n", format(total));
+        if (!trackAllocations) return summary;
+
+        StringBuilder allocations = new StringBuilder("\nAllocations (bytes per lap)");
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            if (bytesLaps[i] == 0) continue;
+            allocations.append(String.format(Locale.ROOT, "\n%-10s mean %10.1f  max %10d  n=%d",
+                    PHASE_NAMES[i], getMeanBytes(i), bytesMax[i], bytesLaps[i]));
+        }
+        return summary + allocations;
+    }
+
+    private static String[] format(LatencyHistogram[] histograms) {
+        int phases = 0;
+        for (LatencyHistogram histogram : histograms) {
+            if (histogram.getCount() > 0) phases++;
+        }
+
+        String[] lines = new String[phases];
+        int line = 0;
+        for (int i = 0; i < histograms.length; i++) {
+            LatencyHistogram histogram = histograms[i];
+            if (histogram.getCount() == 0) continue;
+            lines[line++] = String.format(Locale.ROOT, "%-10s p50 %8.1f  p99 %8.1f  max %8.1f  n=%d",
+                    PHASE_NAMES[i], histogram.getPercentile(50) / 1e3, histogram.getPercentile(99) / 1e3,
+                    histogram.getMax() / 1e3, histogram.getCount());
+        }
+        return lines;
+    }
+}
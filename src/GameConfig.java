@@ -0,0 +1,390 @@
+import bagel.util.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Immutable, typed view of app.properties and message.properties.
+ * Every value is parsed and validated once at startup, so a bad entry fails
+ * straight away with the offending key instead of deep inside gameplay.
+ */
+public final class GameConfig {
+    private static final Set<String> ENTITY_TYPES = Set.of("door", "restartarea", "bulletKin",
+            "ashenBulletKin", "keyBulletKin", "chaserBulletKin", "wall", "table", "basket", "river", "treasurebox");
+
+    // Window and timing
+    public final int windowWidth;
+    public final int windowHeight;
+    public final int maxFrames;
+    public final int tickRate;
+    public final int maxTicksPerFrame;
+
+    // Text layout
+    public final String fontPath;
+    public final int titleFontSize;
+    public final double titleY;
+    public final int promptFontSize;
+    public final double moveMessageY;
+    public final double selectMessageY;
+    public final int statsFontSize;
+    public final Point healthStat;
+    public final Point coinStat;
+    public final Point keyStat;
+    public final Point weaponStat;
+    public final Point robotSprite;
+    public final Point marineSprite;
+    public final Point robotMessage;
+    public final Point marineMessage;
+
+    // Player and store
+    public final Point playerStart;
+    public final Point storePosition;
+    public final double initialHealth;
+    public final double initialCoins;
+    public final double movingSpeed;
+    public final int robotExtraCoin;
+    public final double healthPurchase;
+    public final double healthBonus;
+    public final double weaponPurchase;
+    public final double weaponStandardDamage;
+    public final double weaponAdvanceDamage;
+    public final double weaponEliteDamage;
+
+    // Enemies
+    public final double bulletKinHealth;
+    public final double bulletKinCoin;
+    public final double bulletKinShootFrequency;
+    public final double ashenBulletKinHealth;
+    public final double ashenBulletKinCoin;
+    public final double ashenBulletKinShootFrequency;
+    public final double keyBulletKinHealth;
+    public final double keyBulletKinSpeed;
+    public final int keyBulletKinPathSmoothing;
+    public final double chaserBulletKinHealth;
+    public final double chaserBulletKinCoin;
+    public final double chaserBulletKinSpeed;
+
+    // Projectiles and hazards
+    public final double bulletSpeed;
+    public final int bulletFreq;
+    public final int bulletPoolCapacity;
+    public final double fireballSpeed;
+    public final double fireballDamage;
+    public final int fireballPoolCapacity;
+    public final double riverDamagePerFrame;
+    public final double basketCoin;
+
+    // Spatial structures
+    public final double collisionGridCellSize;
+    public final int tilesCellSize;
+    public final int flowFieldCellSize;
+
+    // Enemy AI level of detail
+    public final double aiNearDistance;
+    public final int aiFarBudget;
+    public final int aiParallelThreshold;
+
+    // Messages
+    public final String title;
+    public final String moveMessage;
+    public final String selectMessage;
+    public final String gameEndLost;
+    public final String gameEndWon;
+    public final String healthDisplay;
+    public final String coinDisplay;
+    public final String weaponDisplay;
+    public final String keyDisplay;
+    public final String robotDescription;
+    public final String marineDescription;
+
+    // Room name -> entity type -> placements, in Properties iteration order (see getRoomEntities)
+    private final Map<String, Map<String, Placement[]>> roomEntities;
+    public final RoomGraph rooms;
+
+    /**
+     * This constructor parses and validates every setting.
+     *
+     * @param gameProps    Properties containing game settings
+     * @param messageProps Properties containing message strings
+     * @throws IllegalArgumentException if a key is missing or has a malformed value
+     */
+    public GameConfig(Properties gameProps, Properties messageProps) {
+        windowWidth = positiveInt(gameProps, "window.width");
+        windowHeight = positiveInt(gameProps, "window.height");
+        maxFrames = positiveInt(gameProps, "gamePlay.maxFrames");
+        tickRate = positiveInt(gameProps, "gamePlay.tickRate");
+        maxTicksPerFrame = positiveInt(gameProps, "gamePlay.maxTicksPerFrame");
+
+        fontPath = require(gameProps, "font");
+        titleFontSize = positiveInt(gameProps, "title.fontSize");
+        titleY = parseDouble(gameProps, "title.y");
+        promptFontSize = positiveInt(gameProps, "prompt.fontSize");
+        moveMessageY = parseDouble(gameProps, "moveMessage.y");
+        selectMessageY = parseDouble(gameProps, "selectMessage.y");
+        statsFontSize = positiveInt(gameProps, "playerStats.fontSize");
+        healthStat = parsePoint(gameProps, "healthStat");
+        coinStat = parsePoint(gameProps, "coinStat");
+        keyStat = parsePoint(gameProps, "keyStat");
+        weaponStat = parsePoint(gameProps, "weaponStat");
+        robotSprite = parsePoint(gameProps, "Robot");
+        marineSprite = parsePoint(gameProps, "Marine");
+        robotMessage = parsePoint(gameProps, "robotMessage");
+        marineMessage = parsePoint(gameProps, "marineMessage");
+
+        playerStart = parsePoint(gameProps, "player.start");
+        storePosition = parsePoint(gameProps, "store");
+        initialHealth = parseDouble(gameProps, "initialHealth");
+        initialCoins = parseDouble(gameProps, "initialCoins");
+        movingSpeed = parseDouble(gameProps, "movingSpeed");
+        robotExtraCoin = parseInt(gameProps, "robotExtraCoin");
+        healthPurchase = parseDouble(gameProps, "healthPurchase");
+        healthBonus = parseDouble(gameProps, "healthBonus");
+        weaponPurchase = parseDouble(gameProps, "weaponPurchase");
+        weaponStandardDamage = parseDouble(gameProps, "weaponStandardDamage");
+        weaponAdvanceDamage = parseDouble(gameProps, "weaponAdvanceDamage");
+        weaponEliteDamage = parseDouble(gameProps, "weaponEliteDamage");
+
+        bulletKinHealth = parseDouble(gameProps, "bulletKinHealth");
+        bulletKinCoin = parseDouble(gameProps, "bulletKinCoin");
+        bulletKinShootFrequency = parseDouble(gameProps, "bulletKinShootFrequency");
+        ashenBulletKinHealth = parseDouble(gameProps, "ashenBulletKinHealth");
+        ashenBulletKinCoin = parseDouble(gameProps, "ashenBulletKinCoin");
+        ashenBulletKinShootFrequency = parseDouble(gameProps, "ashenBulletKinShootFrequency");
+        keyBulletKinHealth = parseDouble(gameProps, "keyBulletKinHealth");
+        keyBulletKinSpeed = parseDouble(gameProps, "keyBulletKinSpeed");
+        keyBulletKinPathSmoothing = parseInt(gameProps, "keyBulletKinPathSmoothing");
+        if (keyBulletKinPathSmoothing < 0) throw invalid("keyBulletKinPathSmoothing", gameProps, "0 or more");
+        chaserBulletKinHealth = parseDouble(gameProps, "chaserBulletKinHealth");
+        chaserBulletKinCoin = parseDouble(gameProps, "chaserBulletKinCoin");
+        chaserBulletKinSpeed = parseDouble(gameProps, "chaserBulletKinSpeed");
+
+        bulletSpeed = parseDouble(gameProps, "bulletSpeed");
+        bulletFreq = parseInt(gameProps, "bulletFreq");
+        bulletPoolCapacity = positiveInt(gameProps, "bulletPoolCapacity");
+        fireballSpeed = parseDouble(gameProps, "fireballSpeed");
+        fireballDamage = parseDouble(gameProps, "fireballDamage");
+        fireballPoolCapacity = positiveInt(gameProps, "fireballPoolCapacity");
+        riverDamagePerFrame = parseDouble(gameProps, "riverDamagePerFrame");
+        basketCoin = parseDouble(gameProps, "basketCoin");
+
+        collisionGridCellSize = parseDouble(gameProps, "collisionGrid.cellSize");
+        if (collisionGridCellSize <= 0) throw invalid("collisionGrid.cellSize", gameProps, "a positive number");
+        tilesCellSize = positiveInt(gameProps, "tiles.cellSize");
+        flowFieldCellSize = positiveInt(gameProps, "flowField.cellSize");
+
+        aiNearDistance = parseDouble(gameProps, "ai.nearDistance");
+        double reach = contactReach(Archetypes.ENEMY_SPRITES, Player.SPRITES);
+        if (aiNearDistance < reach) {
+            throw invalid("ai.nearDistance", gameProps, String.format(Locale.ROOT,
+                    "at least %.1f, the farthest an enemy can be from the player and still touch them", reach));
+        }
+        aiFarBudget = positiveInt(gameProps, "ai.farBudget");
+        aiParallelThreshold = positiveInt(gameProps, "ai.parallelThreshold");
+
+        title = require(messageProps, "title");
+        moveMessage = require(messageProps, "moveMessage");
+        selectMessage = require(messageProps, "selectMessage");
+        gameEndLost = require(messageProps, "gameEnd.lost");
+        gameEndWon = require(messageProps, "gameEnd.won");
+        healthDisplay = require(messageProps, "healthDisplay");
+        coinDisplay = require(messageProps, "coinDisplay");
+        weaponDisplay = require(messageProps, "weaponDisplay");
+        keyDisplay = require(messageProps, "keyDisplay");
+        robotDescription = require(messageProps, "robotDescription");
+        marineDescription = require(messageProps, "marineDescription");
+
+        roomEntities = parseRoomEntities(gameProps);
+        rooms = parseRoomGraph(gameProps, roomEntities);
+    }
+
+    /**
+     * This method returns the entities placed in a room, keyed by entity type.
+     * Types are iterated in the order Properties.entrySet() returned their keys: the
+     * key hash order, which is the same on every run for a given set of keys, but
+     * not the order of the lines in the file. The game has always created entities
+     * in this order, and a room's wall layer keeps its place in it (see Room.wallLayerOrder).
+     *
+     * @param roomName The name of the room
+     * @return The placements for each entity type, empty if the room has none
+     */
+    public Map<String, Placement[]> getRoomEntities(String roomName) {
+        return roomEntities.getOrDefault(roomName, Collections.emptyMap());
+    }
+
+    /**
+     * This method returns the single placement of an entity type in a room.
+     *
+     * @param roomName The name of the room
+     * @param type     The entity type
+     * @return The placement, or null if the room has none
+     */
+    public Placement getRoomEntity(String roomName, String type) {
+        Placement[] placements = getRoomEntities(roomName).get(type);
+        return placements == null || placements.length == 0 ? null : placements[0];
+    }
+
+    private static Map<String, Map<String, Placement[]>> parseRoomEntities(Properties props) {
+        Map<String, Map<String, Placement[]>> rooms = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> entry : props.entrySet()) {
+            String key = entry.getKey().toString();
+            int dot = key.lastIndexOf('.');
+            if (dot < 0 || !ENTITY_TYPES.contains(key.substring(0, dot))) continue;
+
+            String value = entry.getValue().toString().trim();
+            List<Placement> placements = new ArrayList<>();
+            if (!value.equals("0")) {
+                for (String coords : value.split(";")) {
+                    placements.add(parsePlacement(key, coords));
+                }
+            }
+            rooms.computeIfAbsent(key.substring(dot + 1), room -> new LinkedHashMap<>())
+                    .put(key.substring(0, dot), placements.toArray(new Placement[0]));
+        }
+
+        for (Map.Entry<String, Map<String, Placement[]>> room : rooms.entrySet()) {
+            room.setValue(Collections.unmodifiableMap(room.getValue()));
+        }
+        return Collections.unmodifiableMap(rooms);
+    }
+
+    private static RoomGraph parseRoomGraph(Properties props, Map<String, Map<String, Placement[]>> entities) {
+        String[] entries = require(props, "rooms").split(";");
+        String[] names = new String[entries.length];
+        int[] types = new int[entries.length];
+        Placement[][] doors = new Placement[entries.length][];
+        for (int room = 0; room < entries.length; room++) {
+            String[] parts = entries[room].split(":");
+            int type = parts.length == 2 ? RoomGraph.parseType(parts[1].trim()) : -1;
+            if (type < 0 || parts[0].isBlank()) {
+                throw invalid("rooms", props, "a list of name:type entries with types prep, battle or end");
+            }
+            names[room] = parts[0].trim();
+            types[room] = type;
+            doors[room] = entities.getOrDefault(names[room], Collections.emptyMap()).getOrDefault("door", new Placement[0]);
+        }
+        return new RoomGraph(names, types, doors, require(props, "gameOverRoom"));
+    }
+
+    private static Placement parsePlacement(String key, String coords) {
+        String[] parts = coords.trim().split(",");
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Config key '" + key + "' has malformed coordinates '" + coords + "'");
+        }
+        try {
+            double x = Double.parseDouble(parts[0].trim());
+            double y = Double.parseDouble(parts[1].trim());
+            String tag = parts.length > 2 ? parts[2].trim() : null;
+            if (key.startsWith("treasurebox.")) {
+                if (tag == null) {
+                    throw new IllegalArgumentException("Config key '" + key + "' is missing a coin value in '" + coords + "'");
+                }
+                Double.parseDouble(tag);
+            }
+            if (key.contains("door.") && tag == null) {
+                throw new IllegalArgumentException("Config key '" + key + "' is missing a destination room in '" + coords + "'");
+            }
+            return new Placement(x, y, tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Config key '" + key + "' has malformed coordinates '" + coords + "'", e);
+        }
+    }
+
+    private static String require(Properties props, String key) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing config key '" + key + "'");
+        }
+        return value.trim();
+    }
+
+    private static int parseInt(Properties props, String key) {
+        try {
+            return Integer.parseInt(require(props, key));
+        } catch (NumberFormatException e) {
+            throw invalid(key, props, "an integer");
+        }
+    }
+
+    private static int positiveInt(Properties props, String key) {
+        int value = parseInt(props, key);
+        if (value <= 0) throw invalid(key, props, "a positive integer");
+        return value;
+    }
+
+    private static double parseDouble(Properties props, String key) {
+        try {
+            return Double.parseDouble(require(props, key));
+        } catch (NumberFormatException e) {
+            throw invalid(key, props, "a number");
+        }
+    }
+
+    private static Point parsePoint(Properties props, String key) {
+        String[] parts = require(props, key).split(",");
+        try {
+            if (parts.length != 2) throw new NumberFormatException();
+            return new Point(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw invalid(key, props, "coordinates in the form x,y");
+        }
+    }
+
+    /**
+     * This method finds the largest distance between the centres of two sprites that still touch,
+     * taking the widest and tallest of each set. Boxes touch when both their horizontal and
+     * vertical gaps are under the sum of their half-extents, so the reach is the diagonal of those sums.
+     *
+     * @param first  The images one of the sprites can be drawn with
+     * @param second The images the other sprite can be drawn with
+     * @return The distance beyond which no pair of the sprites can overlap
+     */
+    private static double contactReach(Texture[] first, Texture[] second) {
+        return Math.hypot((widest(first) + widest(second)) / 2, (tallest(first) + tallest(second)) / 2);
+    }
+
+    private static double widest(Texture[] images) {
+        double width = 0;
+        for (Texture image : images) width = Math.max(width, image.getWidth());
+        return width;
+    }
+
+    private static double tallest(Texture[] images) {
+        double height = 0;
+        for (Texture image : images) height = Math.max(height, image.getHeight());
+        return height;
+    }
+
+    private static IllegalArgumentException invalid(String key, Properties props, String expected) {
+        return new IllegalArgumentException("Config key '" + key + "' must be " + expected
+                + " but was '" + props.getProperty(key) + "'");
+    }
+
+    /**
+     * A single entity placement read from a room property, such as one wall tile.
+     */
+    public static final class Placement {
+        public final double x;
+        public final double y;
+        public final String tag; // Third field, e.g. a door's destination or a treasure box's coins
+
+        private Placement(double x, double y, String tag) {
+            this.x = x;
+            this.y = y;
+            this.tag = tag;
+        }
+
+        /**
+         * This method returns the placement as a Point.
+         *
+         * @return The position of the placement
+         */
+        public Point toPoint() {
+            return new Point(x, y);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+
+/**
+ * Java Flight Recorder events for the rare, expensive moments of a session
+ * that sampling profilers miss: room changes, game over, resets, room loading,
+ * enemies waking up and bursts of fireballs. Each event is timed, so in
+ * Mission Control they line up against GC pauses and JIT compilation.
+ * Events cost almost nothing when no recording is running.
+ */
+public final class GameEvents {
+    private static final String CATEGORY = "Shadow Dungeon";
+
+    /** Fireballs spawned in one tick from which the tick counts as a burst */
+    public static final int FIREBALL_BURST = 2;
+
+    private GameEvents() {
+    }
+
+    /**
+     * This method starts a flight recording with the JDK's "profile" settings,
+     * written to a file when it is stopped or the JVM exits.
+     *
+     * @param path The file to write the recording to
+     * @return The running recording
+     * @throws IOException if the recording settings or the file cannot be used
+     */
+    public static Recording startRecording(String path) throws IOException {
+        Configuration settings;
+        try {
+            settings = Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException("Could not read the JFR profile settings", e);
+        }
+        Recording recording = new Recording(settings);
+        recording.setName("ShadowDungeon");
+        recording.setDestination(Path.of(path));
+        recording.setDumpOnExit(true);
+        recording.start();
+        return recording;
+    }
+
+    /**
+     * This method stops a flight recording, which writes it to its file.
+     *
+     * @param recording The recording from {@link #startRecording(String)}, or null
+     */
+    public static void stopRecording(Recording recording) {
+        if (recording == null) return;
+        recording.stop();
+        recording.close();
+    }
+
+    @Name("shadowdungeon.RoomChange")
+    @Label("Room Change")
+    @Category(CATEGORY)
+    @Description("The player walked through a door into another room")
+    public static class RoomChange extends Event {
+        @Label("From Room")
+        public String fromRoom;
+        @Label("To Room")
+        public String toRoom;
+        @Label("Projectiles Cleared")
+        public int projectilesCleared;
+    }
+
+    @Name("shadowdungeon.GameOver")
+    @Label("Game Over")
+    @Category(CATEGORY)
+    @Description("The player died and was moved to the end room")
+    public static class GameOver extends Event {
+        @Label("Room")
+        public String room;
+        @Label("Tick")
+        public long tick;
+    }
+
+    @Name("shadowdungeon.GameReset")
+    @Label("Game Reset")
+    @Category(CATEGORY)
+    @Description("Every room, the player and the store were rebuilt from the configuration")
+    public static class GameReset extends Event {
+        @Label("Enemies")
+        public int enemies;
+        @Label("Obstacles")
+        public int obstacles;
+    }
+
+    @Name("shadowdungeon.RoomLoad")
+    @Label("Room Load")
+    @Category(CATEGORY)
+    @Description("A battle room created its entities, grids and pre-rendered layers")
+    public static class RoomLoad extends Event {
+        @Label("Room")
+        public String room;
+        @Label("Enemies")
+        public int enemies;
+        @Label("Obstacles")
+        public int obstacles;
+        @Label("Rivers")
+        public int rivers;
+        @Label("Treasure Boxes")
+        public int treasureBoxes;
+    }
+
+    @Name("shadowdungeon.EnemyActivation")
+    @Label("Enemy Activation")
+    @Category(CATEGORY)
+    @Description("The doors of a battle room locked behind the player and its enemies woke up")
+    public static class EnemyActivation extends Event {
+        @Label("Room")
+        public String room;
+        @Label("Enemies Activated")
+        public int enemiesActivated;
+    }
+
+    @Name("shadowdungeon.FireballBurst")
+    @Label("Fireball Burst")
+    @Category(CATEGORY)
+    @Description("A tick in which several enemies fired at once")
+    public static class FireballBurst extends Event {
+        @Label("Room")
+        public String room;
+        @Label("Tick")
+        public long tick;
+        @Label("Fireballs Spawned")
+        public int fireballsSpawned;
+    }
+}
@@ -0,0 +1,54 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+
+/**
+ * This interface represents the keyboard and mouse state the game reads each frame.
+ * It lets the simulation run from Bagel's window input or from a script.
+ */
+public interface GameInput {
+
+    /**
+     * This method checks whether a key is held down.
+     *
+     * @param key The key to check
+     * @return true if the key is down
+     */
+    boolean isDown(Keys key);
+
+    /**
+     * This method checks whether a key was pressed this frame.
+     *
+     * @param key The key to check
+     * @return true if the key was pressed
+     */
+    boolean wasPressed(Keys key);
+
+    /**
+     * This method checks whether a mouse button is held down.
+     *
+     * @param button The button to check
+     * @return true if the button is down
+     */
+    boolean isDown(MouseButtons button);
+
+    /**
+     * This method returns the x-coordinate of the mouse.
+     *
+     * @return The mouse x-coordinate
+     */
+    double getMouseX();
+
+    /**
+     * This method returns the y-coordinate of the mouse.
+     *
+     * @return The mouse y-coordinate
+     */
+    double getMouseY();
+
+    /**
+     * This method moves the input on to the next simulation tick.
+     * Input that needs no per-tick bookkeeping can rely on the default, which does nothing.
+     */
+    default void nextTick() {
+    }
+}
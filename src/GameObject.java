@@ -1,12 +1,15 @@
-import bagel.Image;
 import bagel.util.Point;
 
 /**
  * This class represents any object in the game.
+ * The position is stored as plain coordinates so moving objects never allocate;
+ * a Point is only built when another part of the game asks for one.
  */
 public abstract class GameObject {
-    public Point position;
-    private Image image;
+    protected double x, y;
+    private Point position; // Cached Point for the current coordinates, rebuilt lazily
+    private double drawnX, drawnY; // Position when last drawn, where the next draw blends from
+    private Texture image;
     public boolean active;
 
     /**
@@ -15,8 +18,8 @@ public abstract class GameObject {
      * @param position The position of the GameObject
      * @param image The image for the GameObject
      */
-    public GameObject(Point position, Image image) {
-        this.position = position;
+    public GameObject(Point position, Texture image) {
+        this(position);
         this.image = image;
     }
 
@@ -27,13 +30,28 @@ public abstract class GameObject {
      */
     public GameObject(Point position) {
         this.position = position;
+        this.x = this.drawnX = position.x;
+        this.y = this.drawnY = position.y;
     }
 
     /**
-     * This method draws the GameObject at its current position.
+     * This method draws the GameObject at its current position,
+     * blended from where it was drawn on the previous tick.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        RenderQueue.draw(getRenderLayer(), image, drawnX, drawnY, x, y);
+        drawnX = x;
+        drawnY = y;
+    }
+
+    /**
+     * This method returns the render layer the GameObject is drawn in.
+     * Subclasses drawn above the floor override it.
+     *
+     * @return The render layer
+     */
+    protected int getRenderLayer() {
+        return RenderQueue.FLOOR;
     }
 
     /**
@@ -43,8 +61,29 @@ public abstract class GameObject {
      * @return true if the GameObject collides with the player, false otherwise
      */
     public boolean hasCollidedWith(Player player) {
-        return image.getBoundingBoxAt(position)
-                .intersects(player.getCurrImage().getBoundingBoxAt(player.getPosition()));
+        return intersects(x - image.getWidth() / 2, y - image.getHeight() / 2, image.getWidth(), image.getHeight(),
+                player.getCurrImage(), player.getX(), player.getY());
+    }
+
+    /**
+     * This method checks if a box intersects an image drawn centred at a position,
+     * using the same edge rules as Bagel's Rectangle but without allocating.
+     *
+     * @param left   Left edge of the box
+     * @param top    Top edge of the box
+     * @param width  Width of the box
+     * @param height Height of the box
+     * @param image  The other image
+     * @param x      The x-coordinate of the other image's centre
+     * @param y      The y-coordinate of the other image's centre
+     * @return true if the box and the image intersect, false otherwise
+     */
+    public static boolean intersects(double left, double top, double width, double height,
+                                     Texture image, double x, double y) {
+        double otherLeft = x - image.getWidth() / 2;
+        double otherTop = y - image.getHeight() / 2;
+        return !(otherLeft > left + width || otherLeft + image.getWidth() < left
+                || otherTop > top + height || otherTop + image.getHeight() < top);
     }
 
     /**
@@ -52,7 +91,7 @@ public abstract class GameObject {
      *
      * @param image The new image to set
      */
-    public void setImage(Image image) {
+    public void setImage(Texture image) {
         this.image = image;
     }
 
@@ -62,15 +101,50 @@ public abstract class GameObject {
      * @return The position of the GameObject
      */
     public Point getPosition() {
+        if (position == null) {
+            position = new Point(x, y);
+        }
         return position;
     }
 
+    /**
+     * This method moves the GameObject without allocating a new Point.
+     *
+     * @param x The new x-coordinate
+     * @param y The new y-coordinate
+     */
+    protected void setPosition(double x, double y) {
+        if (x != this.x || y != this.y) {
+            this.x = x;
+            this.y = y;
+            position = null;
+        }
+    }
+
+    /**
+     * This method returns the x-coordinate of the GameObject's centre.
+     *
+     * @return The x-coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * This method returns the y-coordinate of the GameObject's centre.
+     *
+     * @return The y-coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
     /**
      * This method returns the image of the GameObject.
      *
      * @return The image of the GameObject
      */
-    public Image getImage() {
+    public Texture getImage() {
         return image;
     }
 
@@ -0,0 +1,65 @@
+import java.util.Locale;
+
+/**
+ * The parts of the game state used to check that two runs ended the same way.
+ */
+public class GameSnapshot {
+    public final long ticks;
+    public final String room;
+    public final double health;
+    public final double coins;
+    public final int enemiesKilled;
+
+    /**
+     * This constructor creates a snapshot from its values.
+     *
+     * @param ticks         The number of simulation ticks run
+     * @param room          The name of the current room
+     * @param health        The player's health
+     * @param coins         The player's coins
+     * @param enemiesKilled The number of enemies killed
+     */
+    public GameSnapshot(long ticks, String room, double health, double coins, int enemiesKilled) {
+        this.ticks = ticks;
+        this.room = room;
+        this.health = health;
+        this.coins = coins;
+        this.enemiesKilled = enemiesKilled;
+    }
+
+    /**
+     * This method captures the current state of a game.
+     *
+     * @param world The game to capture
+     * @return A snapshot of the game
+     */
+    public static GameSnapshot capture(World world) {
+        Player player = world.getPlayer();
+        return new GameSnapshot(world.getTick(), world.getCurrentRoomName(),
+                player.getHealth(), player.getCoins(), world.getEnemiesKilled());
+    }
+
+    /**
+     * Two snapshots are equal only if every value matches exactly, bit for bit.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameSnapshot)) return false;
+        GameSnapshot that = (GameSnapshot) other;
+        return ticks == that.ticks && room.equals(that.room)
+                && Double.doubleToLongBits(health) == Double.doubleToLongBits(that.health)
+                && Double.doubleToLongBits(coins) == Double.doubleToLongBits(that.coins)
+                && enemiesKilled == that.enemiesKilled;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(ticks) * 31 + room.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "ticks=%d room=%s health=%s coins=%s killed=%d",
+                ticks, room, health, coins, enemiesKilled);
+    }
+}
@@ -0,0 +1,135 @@
+import java.io.IOException;
+import jdk.jfr.Recording;
+
+/**
+ * Runs the game loop without a Bagel window.
+ * Rooms, the player, enemies and projectiles are updated exactly as in the
+ * windowed game, but from scripted or replayed input and with rendering turned
+ * off, so the loop runs as fast as the CPU allows. Scripted runs stop after
+ * gamePlay.maxFrames ticks; replays stop when the recording ends.
+ */
+public class HeadlessGame {
+
+    /**
+     * This method plays the game from an input source for a number of ticks.
+     *
+     * @param config    The game configuration
+     * @param input     The input source, advanced once per tick
+     * @param maxFrames The number of ticks to simulate
+     * @return The statistics of the run
+     */
+    public static Result run(GameConfig config, GameInput input, int maxFrames) {
+        RenderQueue.setEnabled(false);
+        World world = new World(config);
+
+        long start = System.nanoTime();
+        for (int frame = 0; frame < maxFrames; frame++) {
+            input.nextTick();
+            world.step(input);
+        }
+        return new Result(maxFrames, System.nanoTime() - start, GameSnapshot.capture(world));
+    }
+
+    /**
+     * This method plays a recording back flat out, until it runs out of ticks.
+     *
+     * @param config The game configuration
+     * @param replay The recording to play
+     * @return The statistics of the run; compare its final state with the recorded one
+     */
+    public static Result replay(GameConfig config, InputReplay replay) {
+        RenderQueue.setEnabled(false);
+        World world = new World(config);
+
+        long start = System.nanoTime();
+        int frames = 0;
+        while (!replay.isFinished()) {
+            replay.nextTick();
+            world.step(replay);
+            frames++;
+        }
+        return new Result(frames, System.nanoTime() - start, GameSnapshot.capture(world));
+    }
+
+    /**
+     * Main entry point for a headless run.
+     * Arguments: an optional seed for the scripted input (default 0),
+     * "--record FILE" to record the scripted input, "--replay FILE" to play
+     * a recording back and check that it ends in the recorded state, and
+     * "--jfr FILE" to write a Java Flight Recording of the run.
+     *
+     * @param args Command line arguments
+     * @throws IOException if a recording cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        GameConfig config = new GameConfig(IOUtils.readPropertiesFile("res/app.properties"),
+                IOUtils.readPropertiesFile("res/message.properties"));
+
+        long seed = 0;
+        String recordPath = null;
+        String replayPath = null;
+        Recording recording = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--record" -> recordPath = args[++i];
+                case "--replay" -> replayPath = args[++i];
+                case "--jfr" -> recording = GameEvents.startRecording(args[++i]);
+                default -> seed = Long.parseLong(args[i]);
+            }
+        }
+
+        if (replayPath != null) {
+            InputReplay replay = new InputReplay(replayPath);
+            Result result = replay(config, replay);
+            GameEvents.stopRecording(recording);
+            System.out.println(result);
+            boolean matched = result.finalState.equals(replay.getRecordedState());
+            System.out.println((matched ? "Replay matched" : "Replay diverged from " + replay.getRecordedState()));
+            if (!matched) System.exit(1);
+            return;
+        }
+
+        GameInput input = new ScriptedInput(seed, config.windowWidth, config.windowHeight);
+        InputRecorder recorder = null;
+        if (recordPath != null) {
+            input = recorder = new InputRecorder(input, recordPath, config.tickRate);
+        }
+
+        Result result = run(config, input, config.maxFrames);
+        GameEvents.stopRecording(recording);
+        if (recorder != null) {
+            recorder.finish(result.finalState);
+        }
+        System.out.println(result);
+    }
+
+    /**
+     * The outcome and timing of a headless run.
+     */
+    public static class Result {
+        public final int frames;
+        public final long elapsedNanos;
+        public final GameSnapshot finalState;
+
+        Result(int frames, long elapsedNanos, GameSnapshot finalState) {
+            this.frames = frames;
+            this.elapsedNanos = elapsedNanos;
+            this.finalState = finalState;
+        }
+
+        /**
+         * This method returns the simulated frames per second.
+         *
+         * @return Ticks simulated per second of wall-clock time
+         */
+        public double getFramesPerSecond() {
+            return elapsedNanos == 0 ? 0 : frames * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("frames=%d time=%.3fs fps=%.0f %s",
+                    frames, elapsedNanos / 1e9, getFramesPerSecond(), finalState);
+        }
+    }
+}
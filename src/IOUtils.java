@@ -1,5 +1,3 @@
-import bagel.util.Point;
-
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Properties;
@@ -24,15 +22,4 @@ public class IOUtils {
 
         return appProps;
     }
-
-    /**
-     * This method parses a coordinate string in the form "x,y" and returns a Point object.
-     *
-     * @param coords The coordinate string to parse
-     * @return A Point object representing the parsed coordinates
-     */
-    public static Point parseCoords(String coords) {
-        String[] coordinates = coords.split(",");
-        return new Point(Double.parseDouble(coordinates[0]), Double.parseDouble(coordinates[1]));
-    }
 }
@@ -0,0 +1,260 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * GameInput that records every tick of another input to a file while passing it through.
+ * At the start of each tick the whole input state is captured, and the game
+ * reads that captured state, so what is recorded is exactly what the game saw.
+ *
+ * Each tick is stored as the change from the previous tick:
+ * a flags byte, then toggled key-down ordinals, pressed key ordinals, the mouse
+ * button mask and the mouse movement as varints. Encoded ticks are handed to a
+ * background thread in blocks, so the game loop never waits on the disk.
+ * {@link #finish(GameSnapshot)} appends the final game state for replays to check against.
+ */
+public class InputRecorder implements GameInput {
+    static final int MAGIC = 0x53445250; // "SDRP"
+    static final int VERSION = 1;
+
+    // Per-tick flags
+    static final int KEYS_DOWN_CHANGED = 1;
+    static final int KEYS_PRESSED = 2;
+    static final int BUTTONS_CHANGED = 4;
+    static final int MOUSE_MOVED = 8;
+    static final int MOUSE_WHOLE = 16;   // Mouse moved by whole pixels, stored as varint deltas
+    static final int END_OF_TICKS = 0xFF;
+
+    static final Keys[] KEYS = Keys.values();
+    static final MouseButtons[] BUTTONS = MouseButtons.values();
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final GameInput source;
+    private final boolean[] down = new boolean[KEYS.length];
+    private final boolean[] pressed = new boolean[KEYS.length];
+    private int buttons = 0;
+    private double mouseX = 0;
+    private double mouseY = 0;
+
+    private final int[] scratch = new int[KEYS.length];
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_SIZE * 2);
+    private final BlockingQueue<byte[]> pending = new ArrayBlockingQueue<>(64);
+    private final Thread writer;
+    private volatile IOException writeError;
+
+    /**
+     * This constructor starts recording the given input to a file.
+     *
+     * @param source   The input to record
+     * @param path     The file to write the recording to
+     * @param tickRate The simulation ticks per second the recording is made at
+     * @throws IOException if the file cannot be created
+     */
+    public InputRecorder(GameInput source, String path, int tickRate) throws IOException {
+        this.source = source;
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(path));
+
+        DataOutputStream header = new DataOutputStream(block);
+        header.writeInt(MAGIC);
+        writeVarint(VERSION);
+        writeVarint(tickRate);
+
+        writer = new Thread(() -> drain(out), "input-recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * This method advances the recorded input, captures its state and records the change.
+     */
+    @Override
+    public void nextTick() {
+        source.nextTick();
+
+        int flags = 0;
+        int toggled = 0;
+        for (int i = 0; i < KEYS.length; i++) {
+            boolean isDown = source.isDown(KEYS[i]);
+            if (isDown != down[i]) {
+                down[i] = isDown;
+                scratch[toggled++] = i;
+            }
+        }
+        if (toggled > 0) flags |= KEYS_DOWN_CHANGED;
+
+        int pressedCount = 0;
+        for (int i = 0; i < KEYS.length; i++) {
+            pressed[i] = source.wasPressed(KEYS[i]);
+            if (pressed[i]) pressedCount++;
+        }
+        if (pressedCount > 0) flags |= KEYS_PRESSED;
+
+        int newButtons = 0;
+        for (int i = 0; i < BUTTONS.length; i++) {
+            if (source.isDown(BUTTONS[i])) newButtons |= 1 << i;
+        }
+        if (newButtons != buttons) flags |= BUTTONS_CHANGED;
+
+        double newMouseX = source.getMouseX();
+        double newMouseY = source.getMouseY();
+        boolean mouseMoved = newMouseX != mouseX || newMouseY != mouseY;
+        boolean whole = isWhole(newMouseX) && isWhole(newMouseY) && isWhole(mouseX) && isWhole(mouseY);
+        if (mouseMoved) flags |= MOUSE_MOVED | (whole ? MOUSE_WHOLE : 0);
+
+        block.write(flags);
+        if (toggled > 0) {
+            writeVarint(toggled);
+            for (int i = 0; i < toggled; i++) writeVarint(scratch[i]);
+        }
+        if (pressedCount > 0) {
+            writeVarint(pressedCount);
+            for (int i = 0; i < KEYS.length; i++) {
+                if (pressed[i]) writeVarint(i);
+            }
+        }
+        if (newButtons != buttons) {
+            writeVarint(newButtons);
+            buttons = newButtons;
+        }
+        if (mouseMoved) {
+            if (whole) {
+                writeVarint(zigzag((long) newMouseX - (long) mouseX));
+                writeVarint(zigzag((long) newMouseY - (long) mouseY));
+            } else {
+                writeLong(Double.doubleToRawLongBits(newMouseX));
+                writeLong(Double.doubleToRawLongBits(newMouseY));
+            }
+            mouseX = newMouseX;
+            mouseY = newMouseY;
+        }
+
+        if (block.size() >= BLOCK_SIZE) flushBlock();
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return down[key.ordinal()];
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return pressed[key.ordinal()];
+    }
+
+    @Override
+    public boolean isDown(MouseButtons button) {
+        return (buttons & (1 << button.ordinal())) != 0;
+    }
+
+    @Override
+    public double getMouseX() {
+        return mouseX;
+    }
+
+    @Override
+    public double getMouseY() {
+        return mouseY;
+    }
+
+    /**
+     * This method ends the recording with the final game state and waits for
+     * everything to reach the disk.
+     *
+     * @param finalState The state of the game after the last recorded tick
+     * @throws IOException if the recording could not be written
+     */
+    public void finish(GameSnapshot finalState) throws IOException {
+        block.write(END_OF_TICKS);
+        DataOutputStream trailer = new DataOutputStream(block);
+        trailer.writeLong(finalState.ticks);
+        trailer.writeUTF(finalState.room);
+        trailer.writeDouble(finalState.health);
+        trailer.writeDouble(finalState.coins);
+        writeVarint(finalState.enemiesKilled);
+        flushBlock();
+
+        enqueue(END_OF_STREAM);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while finishing the recording", e);
+        }
+        if (writeError != null) throw writeError;
+    }
+
+    /**
+     * This method hands the current block to the writer thread. Once a write has
+     * failed the block is dropped instead, since nothing more can reach the file.
+     */
+    private void flushBlock() {
+        if (writeError == null) enqueue(block.toByteArray());
+        block.reset();
+    }
+
+    private void enqueue(byte[] bytes) {
+        try {
+            pending.put(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method runs on the writer thread, copying blocks to the file until the end marker.
+     * After a failed write it keeps taking blocks without writing them, so the game
+     * thread is never left waiting on a full queue, and finish reports the first error.
+     */
+    private void drain(OutputStream out) {
+        try {
+            while (true) {
+                byte[] bytes = pending.take();
+                if (bytes == END_OF_STREAM) break;
+                if (writeError != null) continue;
+                try {
+                    out.write(bytes);
+                } catch (IOException e) {
+                    writeError = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            if (writeError == null) writeError = e;
+        }
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            block.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        block.write((int) value);
+    }
+
+    private void writeLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            block.write((int) (value >>> shift));
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static boolean isWhole(double value) {
+        return value == Math.rint(value) && Math.abs(value) < (1L << 52);
+    }
+}
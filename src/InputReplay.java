@@ -0,0 +1,170 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * GameInput that plays back a file written by {@link InputRecorder}, one tick at a time.
+ * After the last tick it holds the recorded final state, so a run can be checked
+ * against the session it was recorded from.
+ */
+public class InputReplay implements GameInput {
+    private final DataInputStream in;
+    private final int tickRate;
+    private final boolean[] down = new boolean[InputRecorder.KEYS.length];
+    private final boolean[] pressed = new boolean[InputRecorder.KEYS.length];
+    private int buttons = 0;
+    private double mouseX = 0;
+    private double mouseY = 0;
+
+    private int nextFlags;
+    private GameSnapshot recordedState;
+
+    /**
+     * This constructor opens a recording for playback.
+     *
+     * @param path The recording file
+     * @throws IOException if the file cannot be read or is not a recording
+     */
+    public InputReplay(String path) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+        if (in.readInt() != InputRecorder.MAGIC) {
+            in.close();
+            throw new IOException("'" + path + "' is not an input recording");
+        }
+        int version = (int) readVarint();
+        if (version != InputRecorder.VERSION) {
+            in.close();
+            throw new IOException("Unsupported recording version " + version + " in '" + path + "'");
+        }
+        tickRate = (int) readVarint();
+        nextFlags = in.readUnsignedByte();
+        if (nextFlags == InputRecorder.END_OF_TICKS) readTrailer();
+    }
+
+    /**
+     * This method checks whether every recorded tick has been played.
+     *
+     * @return true once the recording is exhausted
+     */
+    public boolean isFinished() {
+        return recordedState != null;
+    }
+
+    /**
+     * This method returns the state the game was in when the recording ended.
+     *
+     * @return The recorded final state, or null until the recording is exhausted
+     */
+    public GameSnapshot getRecordedState() {
+        return recordedState;
+    }
+
+    /** @return The simulation ticks per second the recording was made at */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * This method applies the next recorded tick.
+     *
+     * @throws IllegalStateException if the recording is already exhausted
+     * @throws UncheckedIOException if the recording cannot be read
+     */
+    @Override
+    public void nextTick() {
+        if (isFinished()) throw new IllegalStateException("The recording has no more ticks");
+
+        try {
+            int flags = nextFlags;
+            if ((flags & InputRecorder.KEYS_DOWN_CHANGED) != 0) {
+                for (int i = (int) readVarint(); i > 0; i--) {
+                    int key = (int) readVarint();
+                    down[key] = !down[key];
+                }
+            }
+
+            Arrays.fill(pressed, false);
+            if ((flags & InputRecorder.KEYS_PRESSED) != 0) {
+                for (int i = (int) readVarint(); i > 0; i--) {
+                    pressed[(int) readVarint()] = true;
+                }
+            }
+
+            if ((flags & InputRecorder.BUTTONS_CHANGED) != 0) {
+                buttons = (int) readVarint();
+            }
+
+            if ((flags & InputRecorder.MOUSE_MOVED) != 0) {
+                if ((flags & InputRecorder.MOUSE_WHOLE) != 0) {
+                    mouseX = (long) mouseX + unzigzag(readVarint());
+                    mouseY = (long) mouseY + unzigzag(readVarint());
+                } else {
+                    mouseX = Double.longBitsToDouble(in.readLong());
+                    mouseY = Double.longBitsToDouble(in.readLong());
+                }
+            }
+
+            nextFlags = in.readUnsignedByte();
+            if (nextFlags == InputRecorder.END_OF_TICKS) readTrailer();
+        } catch (EOFException e) {
+            throw new UncheckedIOException(new IOException("The recording ends without its final state", e));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return down[key.ordinal()];
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return pressed[key.ordinal()];
+    }
+
+    @Override
+    public boolean isDown(MouseButtons button) {
+        return (buttons & (1 << button.ordinal())) != 0;
+    }
+
+    @Override
+    public double getMouseX() {
+        return mouseX;
+    }
+
+    @Override
+    public double getMouseY() {
+        return mouseY;
+    }
+
+    private void readTrailer() throws IOException {
+        long ticks = in.readLong();
+        String room = in.readUTF();
+        double health = in.readDouble();
+        double coins = in.readDouble();
+        int enemiesKilled = (int) readVarint();
+        recordedState = new GameSnapshot(ticks, room, health, coins, enemiesKilled);
+        in.close();
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in recording");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
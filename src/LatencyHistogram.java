@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds with a bounded relative error, in the style of HdrHistogram.
+ * Durations are grouped by their highest set bit and each group is split into
+ * SUB_BUCKETS equal buckets, so a reported percentile is within about 3% of the
+ * true value whatever its magnitude. Recording is a few bit operations and an
+ * array increment, and never allocates.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+    private long count = 0;
+    private long max = 0;
+
+    /**
+     * This method adds one duration to the histogram.
+     *
+     * @param nanos The duration in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[indexOf(value)]++;
+        count++;
+        if (value > max) max = value;
+    }
+
+    /**
+     * This method returns the duration below which the given share of recorded durations fall.
+     *
+     * @param percentile The percentile, from 0 to 100
+     * @return The duration in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueAt(i), max);
+        }
+        return max;
+    }
+
+    /** @return The longest duration recorded, in nanoseconds */
+    public long getMax() {
+        return max;
+    }
+
+    /** @return The number of durations recorded */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * This method empties the histogram.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
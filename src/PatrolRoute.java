@@ -0,0 +1,164 @@
+import bagel.util.Point;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A looped patrol route compiled into an arc-length table.
+ * The route is a closed polyline: the waypoints in order and back to the
+ * first, or, when smoothed, a Catmull-Rom spline through them sampled into
+ * short segments. Each segment's start, unit direction and cumulative start
+ * distance are stored, so the position at any distance travelled is a lookup
+ * of the segment and two multiply-adds. Patrollers keep only their distance,
+ * and any number of them share one route.
+ *
+ * Routes are cached process-wide by waypoints and smoothing, like textures,
+ * so rooms rebuilt on restart and sessions on other threads reuse them.
+ */
+public class PatrolRoute {
+    private static final Map<String, PatrolRoute> ROUTES = new HashMap<>();
+
+    private final double[] startX;      // Per segment: where it starts
+    private final double[] startY;
+    private final double[] directionX;  // Per segment: unit direction
+    private final double[] directionY;
+    private final double[] distance;    // Per segment: the route distance at its start; one extra entry holds the length
+    private final int segments;
+
+    /**
+     * This method returns the compiled route through the given waypoints, compiling it on first use.
+     *
+     * @param waypoints The waypoints in order; the route loops from the last back to the first
+     * @param smoothing The segments per waypoint of a smoothed route, or 0 for straight lines between waypoints
+     * @return The shared route
+     */
+    public static synchronized PatrolRoute get(Point[] waypoints, int smoothing) {
+        StringBuilder key = new StringBuilder().append(smoothing);
+        for (Point point : waypoints) key.append(';').append(point.x).append(',').append(point.y);
+        return ROUTES.computeIfAbsent(key.toString(), k -> new PatrolRoute(waypoints, smoothing));
+    }
+
+    private PatrolRoute(Point[] waypoints, int smoothing) {
+        int count = waypoints.length;
+        double[] xs;
+        double[] ys;
+        if (smoothing > 0 && count > 2) {
+            xs = new double[count * smoothing];
+            ys = new double[count * smoothing];
+            for (int i = 0; i < count; i++) {
+                Point p0 = waypoints[(i + count - 1) % count];
+                Point p1 = waypoints[i];
+                Point p2 = waypoints[(i + 1) % count];
+                Point p3 = waypoints[(i + 2) % count];
+                for (int step = 0; step < smoothing; step++) {
+                    double t = (double) step / smoothing;
+                    xs[i * smoothing + step] = catmullRom(p0.x, p1.x, p2.x, p3.x, t);
+                    ys[i * smoothing + step] = catmullRom(p0.y, p1.y, p2.y, p3.y, t);
+                }
+            }
+        } else {
+            xs = new double[count];
+            ys = new double[count];
+            for (int i = 0; i < count; i++) {
+                xs[i] = waypoints[i].x;
+                ys[i] = waypoints[i].y;
+            }
+        }
+
+        // A route needs two points to go anywhere; shorter ones stand still at their only point
+        int points = xs.length;
+        segments = points < 2 ? 1 : points;
+        startX = new double[segments];
+        startY = new double[segments];
+        directionX = new double[segments];
+        directionY = new double[segments];
+        distance = new double[segments + 1];
+        for (int i = 0; i < segments; i++) {
+            startX[i] = points == 0 ? 0 : xs[i];
+            startY[i] = points == 0 ? 0 : ys[i];
+            if (points < 2) continue;
+            double dx = xs[(i + 1) % points] - xs[i];
+            double dy = ys[(i + 1) % points] - ys[i];
+            double length = Math.sqrt(dx * dx + dy * dy);
+            if (length > 0) {
+                directionX[i] = dx / length;
+                directionY[i] = dy / length;
+            }
+            distance[i + 1] = distance[i] + length;
+        }
+    }
+
+    /**
+     * This method returns the length of one lap of the route.
+     *
+     * @return The length, 0 for a route that stands still
+     */
+    public double getLength() {
+        return distance[segments];
+    }
+
+    /**
+     * This method wraps a distance travelled into one lap.
+     *
+     * @param travelled The distance travelled, which may be negative or more than a lap
+     * @return The distance from the start of the lap, from 0 up to the route length
+     */
+    public double wrap(double travelled) {
+        double length = distance[segments];
+        if (length == 0) return 0;
+        double lap = travelled % length;
+        return lap < 0 ? lap + length : lap;
+    }
+
+    /**
+     * This method finds the segment a distance within one lap falls in.
+     * The hint, usually the segment found on the previous tick, is checked
+     * first and then its successor; other distances are found by binary search.
+     *
+     * @param lap  The distance from the start of the lap
+     * @param hint A segment to try first
+     * @return The segment
+     */
+    public int segmentAt(double lap, int hint) {
+        if (hint >= 0 && hint < segments && lap >= distance[hint]) {
+            if (lap < distance[hint + 1]) return hint;
+            int following = hint + 1;
+            if (following < segments && lap < distance[following + 1]) return following;
+        }
+        int low = 0;
+        int high = segments - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (distance[middle] <= lap) low = middle;
+            else high = middle - 1;
+        }
+        return low;
+    }
+
+    /**
+     * This method returns the x-coordinate at a distance within one lap.
+     *
+     * @param segment The segment the distance falls in, from segmentAt
+     * @param lap     The distance from the start of the lap
+     * @return The x-coordinate
+     */
+    public double xAt(int segment, double lap) {
+        return startX[segment] + directionX[segment] * (lap - distance[segment]);
+    }
+
+    /**
+     * This method returns the y-coordinate at a distance within one lap.
+     *
+     * @param segment The segment the distance falls in, from segmentAt
+     * @param lap     The distance from the start of the lap
+     * @return The y-coordinate
+     */
+    public double yAt(int segment, double lap) {
+        return startY[segment] + directionY[segment] * (lap - distance[segment]);
+    }
+
+    private static double catmullRom(double p0, double p1, double p2, double p3, double t) {
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return 0.5 * (2 * p1 + (p2 - p0) * t + (2 * p0 - 5 * p1 + 4 * p2 - p3) * t2 + (3 * p1 - p0 - 3 * p2 + p3) * t3);
+    }
+}
@@ -1,43 +1,55 @@
 import bagel.*;
 import bagel.util.Point;
-import bagel.util.Rectangle;
 
 /**
  * Player character that can move around and between rooms,
  * defeat enemies, collect coins and keys.
  */
 public class Player implements Movable {
+    private final World world;
     private Character character = Character.DEFAULT;
     private Weapon weapon;
 
-    private Point prevPosition;
+    // Current and previous coordinates; a Point is only built when requested
+    private double x, y;
+    private double prevX, prevY;
+    private double drawnX, drawnY; // Position when last drawn, where the next draw blends from
     private Point position;
-    private Image currImage;
+    private Texture currImage;
     private double health;
     private final double speed;
-    private double coins = 0;
+    private double coins;
     private double keys = 0;
     private boolean faceLeft = false;
 
-    public int robotBonusCoin = Integer.parseInt(ShadowDungeon.getGameProps().getProperty("robotExtraCoin"));
+    public final int robotBonusCoin;
 
-    private static final Image DEFAULT_RIGHT = new Image("res/player_right.png");
-    private static final Image DEFAULT_LEFT = new Image("res/player_left.png");
-    private static final Image MARINE_RIGHT = new Image("res/marine_right.png");
-    private static final Image MARINE_LEFT = new Image("res/marine_left.png");
-    private static final Image ROBOT_RIGHT = new Image("res/robot_right.png");
-    private static final Image ROBOT_LEFT = new Image("res/robot_left.png");
+    private static final Texture DEFAULT_RIGHT = TextureRegistry.get("res/player_right.png");
+    private static final Texture DEFAULT_LEFT = TextureRegistry.get("res/player_left.png");
+    private static final Texture MARINE_RIGHT = TextureRegistry.get("res/marine_right.png");
+    private static final Texture MARINE_LEFT = TextureRegistry.get("res/marine_left.png");
+    private static final Texture ROBOT_RIGHT = TextureRegistry.get("res/robot_right.png");
+    private static final Texture ROBOT_LEFT = TextureRegistry.get("res/robot_left.png");
+
+    /** Every image the player can be drawn with, for checks that depend on the player's size */
+    public static final Texture[] SPRITES = {DEFAULT_RIGHT, DEFAULT_LEFT, MARINE_RIGHT, MARINE_LEFT, ROBOT_RIGHT, ROBOT_LEFT};
 
     /**
      * This method constructs a Player at the specified position.
      *
+     * @param world    The session the player is in
      * @param position The initial position of the player
      */
-    public Player(Point position) {
+    public Player(World world, Point position) {
+        this.world = world;
         this.position = position;
+        this.x = this.prevX = this.drawnX = position.x;
+        this.y = this.prevY = this.drawnY = position.y;
         this.currImage = DEFAULT_RIGHT;
-        this.speed = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("movingSpeed"));
-        this.health = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("initialHealth"));
+        this.speed = world.config.movingSpeed;
+        this.health = world.config.initialHealth;
+        this.coins = world.config.initialCoins;
+        this.robotBonusCoin = world.config.robotExtraCoin;
         this.weapon = Weapon.STANDARD;
     }
 
@@ -47,9 +59,9 @@ public class Player implements Movable {
      *
      * @param input The current input state
      */
-    public void update(Input input) {
-        double currX = position.x;
-        double currY = position.y;
+    public void update(GameInput input) {
+        double currX = x;
+        double currY = y;
 
         if (input.isDown(Keys.A)) currX -= speed;
         if (input.isDown(Keys.D)) currX += speed;
@@ -58,10 +70,11 @@ public class Player implements Movable {
 
         faceLeft = input.getMouseX() < currX;
 
-        Rectangle rect = currImage.getBoundingBoxAt(new Point(currX, currY));
-        Point topLeft = rect.topLeft();
-        Point bottomRight = rect.bottomRight();
-        if (topLeft.x >= 0 && bottomRight.x <= Window.getWidth() && topLeft.y >= 0 && bottomRight.y <= Window.getHeight()) {
+        double left = currX - currImage.getWidth() / 2;
+        double top = currY - currImage.getHeight() / 2;
+        double right = left + currImage.getWidth();
+        double bottom = top + currImage.getHeight();
+        if (left >= 0 && right <= world.screenWidth && top >= 0 && bottom <= world.screenHeight) {
             move(currX, currY);
         }
     }
@@ -75,7 +88,9 @@ public class Player implements Movable {
             case MARINE -> currImage = faceLeft ? MARINE_LEFT : MARINE_RIGHT;
             case ROBOT -> currImage = faceLeft ? ROBOT_LEFT : ROBOT_RIGHT;
         }
-        currImage.draw(position.x, position.y);
+        RenderQueue.draw(RenderQueue.PLAYER, currImage, drawnX, drawnY, x, y);
+        drawnX = x;
+        drawnY = y;
         UserInterface.drawStats(health, coins, keys, weapon.getLevel());
     }
 
@@ -97,27 +112,54 @@ public class Player implements Movable {
         health -= damage;
         if (health <= 0) {
             health = 0;
-            ShadowDungeon.changeToGameOverRoom();
+            world.changeToGameOverRoom();
         }
     }
 
     /**
      * Getters and setters for player attributes
      */
-    public Point getPosition() { return position; }
+    public Point getPosition() {
+        if (position == null) position = new Point(x, y);
+        return position;
+    }
+
+    public double getX() { return x; }
+
+    public double getY() { return y; }
 
-    public Image getCurrImage() { return currImage; }
+    public Texture getCurrImage() { return currImage; }
 
-    public Point getPrevPosition() { return prevPosition; }
+
+    public double getPrevX() { return prevX; }
+
+    public double getPrevY() { return prevY; }
 
     public Character getCharacter() { return character; }
 
     public Weapon getWeapon() { return this.weapon; }
 
+    public double getWeaponDamage() { return weapon.getDamage(world.config); }
+
     public double getKeys() { return keys; }
 
     public double getCoins() { return coins; }
 
+    public double getHealth() { return health; }
+
+    /**
+     * This method moves the player without drawing the movement between ticks,
+     * for jumps such as walking through a door into another room.
+     *
+     * @param x The new x-coordinate
+     * @param y The new y-coordinate
+     */
+    public void teleport(double x, double y) {
+        move(x, y);
+        drawnX = x;
+        drawnY = y;
+    }
+
     /**
      * This method uses a key.
      */
@@ -169,7 +211,12 @@ public class Player implements Movable {
      */
     @Override
     public void move(double x, double y) {
-        prevPosition = position;
-        position = new Point(x, y);
+        prevX = this.x;
+        prevY = this.y;
+        if (x != this.x || y != this.y) {
+            this.x = x;
+            this.y = y;
+            position = null;
+        }
     }
 }
@@ -1,44 +1,38 @@
-import bagel.Input;
 import bagel.Keys;
-import java.util.Map;
-import java.util.Properties;
 
 /**
  * Room where the game starts.
  * Allows the player to choose their character and enter the game.
  */
 public class PrepRoom extends Room {
-    private Door door;
     private RestartArea restartArea;
 
+    /**
+     * This method constructs an empty PrepRoom.
+     *
+     * @param world The session the room is part of
+     * @param id    The room's id in the room graph
+     */
+    public PrepRoom(World world, int id) {
+        super(world, id);
+    }
+
     /**
      * This method initializes all entities in the PrepRoom
-     * based on the provided game properties.
+     * based on the provided game configuration.
      *
-     * @param gameProperties The properties defining the objects in this room
+     * @param config The game configuration defining the objects in this room
      */
     @Override
-    public void initEntities(Properties gameProperties) {
-        String roomSuffix = "." + ShadowDungeon.PREP_ROOM_NAME;
-
-        for (Map.Entry<Object, Object> entry : gameProperties.entrySet()) {
-            if (entry.getKey().toString().contains(roomSuffix)) {
-                String objectType = entry.getKey().toString()
-                        .substring(0, entry.getKey().toString().length() - roomSuffix.length());
-                String propertyValue = entry.getValue().toString();
+    public void initEntities(GameConfig config) {
+        addDoors(null);
 
-                switch (objectType) {
-                    case "door":
-                        String[] coords = propertyValue.split(",");
-                        door = new Door(IOUtils.parseCoords(propertyValue), coords[2]);
-                        doors.add(door);
-                        break;
-                    case "restartarea":
-                        restartArea = new RestartArea(IOUtils.parseCoords(propertyValue));
-                        break;
-                }
-            }
+        GameConfig.Placement restartPlacement = config.getRoomEntity(name, "restartarea");
+        if (restartPlacement != null) {
+            restartArea = new RestartArea(world, restartPlacement.toPoint());
         }
+
+        buildCollisionGrids();
     }
 
     /**
@@ -48,14 +42,19 @@ public class PrepRoom extends Room {
      * @param input The current input state
      */
     @Override
-    public void update(Input input) {
+    public void update(GameInput input) {
+        FrameProfiler profiler = world.profiler;
+        long time = profiler.start();
+
         checkStoreState(input);
+        time = profiler.lap(FrameProfiler.STORE, time);
         if (paused) return;
 
         UserInterface.drawStartScreen();
+        time = profiler.lap(FrameProfiler.UI, time);
 
-        door.update(player);
-        door.draw();
+        updateDoors();
+        time = profiler.lap(FrameProfiler.DOORS, time);
         if (stopUpdatingEarlyIfNeeded()) return;
 
         restartArea.update(input, player);
@@ -73,22 +72,15 @@ public class PrepRoom extends Room {
             player.setCharacter(Character.ROBOT);
         }
 
-        // Unlock door after character selection
-        if ((input.wasPressed(Keys.R) || input.wasPressed(Keys.M)) && !door.isUnlocked()) {
-            door.unlock(false);
+        // Unlock the doors after character selection
+        if (input.wasPressed(Keys.R) || input.wasPressed(Keys.M)) {
+            for (int i = 0; i < doors.size(); i++) {
+                if (!doors.get(i).isUnlocked()) doors.get(i).unlock(false);
+            }
         }
+        time = profiler.lap(FrameProfiler.PLAYER, time);
 
-        handleBullets(input, obstacles, doors, enemies);
-    }
-
-    /**
-     * This method finds the door leading to a given room.
-     *
-     * @param roomName The name of the destination room
-     * @return The Door object leading to that room
-     */
-    @Override
-    public Door findDoorByDestination(String roomName) {
-        return door;
+        handleBullets(input);
+        profiler.lap(FrameProfiler.BULLETS, time);
     }
 }
@@ -0,0 +1,185 @@
+/**
+ * Structure-of-arrays storage for every live projectile.
+ * Position, direction, damage, type and alive flag are kept in parallel
+ * primitive arrays so updates walk memory linearly instead of chasing
+ * object pointers. Live projectiles are packed at the front of the arrays
+ * and dead ones are removed by swapping the last live entry into their slot.
+ */
+public class ProjectileStore {
+    /** Type id of bullets fired by the player */
+    public static final int BULLET = 0;
+
+    /** Type id of fireballs fired by enemies */
+    public static final int FIREBALL = 1;
+
+    private static final int TYPE_COUNT = 2;
+
+    public final double[] x;
+    public final double[] y;
+    public final double[] dx;
+    public final double[] dy;
+    public final double[] damage;
+    public final int[] type;
+    public final boolean[] alive;
+
+    private int size = 0;
+    private final int[] liveCounts = new int[TYPE_COUNT];
+    private final int[] capacities = new int[TYPE_COUNT];
+    private final int[] exhaustedCounts = new int[TYPE_COUNT];
+    private final long[] spawnedCounts = new long[TYPE_COUNT];
+
+    /**
+     * This constructor creates a store with a fixed capacity per projectile type.
+     *
+     * @param bulletCapacity   The maximum number of live bullets
+     * @param fireballCapacity The maximum number of live fireballs
+     */
+    public ProjectileStore(int bulletCapacity, int fireballCapacity) {
+        capacities[BULLET] = bulletCapacity;
+        capacities[FIREBALL] = fireballCapacity;
+        int capacity = bulletCapacity + fireballCapacity;
+        x = new double[capacity];
+        y = new double[capacity];
+        dx = new double[capacity];
+        dy = new double[capacity];
+        damage = new double[capacity];
+        type = new int[capacity];
+        alive = new boolean[capacity];
+    }
+
+    /**
+     * This method adds a projectile travelling from a start point toward a target.
+     * When the type is at capacity, the exhaustion counter is increased instead.
+     *
+     * @param projectileType The type of the projectile
+     * @param startX         The x-coordinate to start from
+     * @param startY         The y-coordinate to start from
+     * @param targetX        The x-coordinate to travel toward
+     * @param targetY        The y-coordinate to travel toward
+     * @param hitDamage      The damage dealt on hit
+     * @return The index of the new projectile, or -1 if the type is at capacity
+     */
+    public int spawn(int projectileType, double startX, double startY, double targetX, double targetY,
+                     double hitDamage) {
+        if (liveCounts[projectileType] == capacities[projectileType]) {
+            exhaustedCounts[projectileType]++;
+            return -1;
+        }
+
+        int i = size++;
+        liveCounts[projectileType]++;
+        spawnedCounts[projectileType]++;
+        double directionX = targetX - startX;
+        double directionY = targetY - startY;
+        double length = Math.sqrt(directionX * directionX + directionY * directionY);
+        x[i] = startX;
+        y[i] = startY;
+        dx[i] = directionX / length;
+        dy[i] = directionY / length;
+        damage[i] = hitDamage;
+        type[i] = projectileType;
+        alive[i] = true;
+        return i;
+    }
+
+    /**
+     * This method moves every projectile of a type and kills those that leave the area.
+     *
+     * @param projectileType The type of projectile to move
+     * @param speed          The distance travelled per frame
+     * @param width          The width of the area
+     * @param height         The height of the area
+     */
+    public void move(int projectileType, double speed, double width, double height) {
+        for (int i = 0; i < size; i++) {
+            if (type[i] != projectileType) continue;
+
+            double newX = x[i] + dx[i] * speed;
+            double newY = y[i] + dy[i] * speed;
+            x[i] = newX;
+            y[i] = newY;
+            if (newX < 0 || newX > width || newY < 0 || newY > height) {
+                alive[i] = false;
+            }
+        }
+    }
+
+    /**
+     * This method removes every dead projectile of a type by swap-removal.
+     *
+     * @param projectileType The type of projectile to compact
+     */
+    public void removeDead(int projectileType) {
+        int i = 0;
+        while (i < size) {
+            if (type[i] == projectileType && !alive[i]) {
+                remove(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void remove(int i) {
+        liveCounts[type[i]]--;
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        dx[i] = dx[last];
+        dy[i] = dy[last];
+        damage[i] = damage[last];
+        type[i] = type[last];
+        alive[i] = alive[last];
+    }
+
+    /**
+     * This method removes every projectile of a type.
+     *
+     * @param projectileType The type of projectile to clear
+     */
+    public void clear(int projectileType) {
+        for (int i = 0; i < size; i++) {
+            if (type[i] == projectileType) alive[i] = false;
+        }
+        removeDead(projectileType);
+    }
+
+    /**
+     * This method returns the number of slots in use, including every type.
+     *
+     * @return The number of slots in use
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method returns the number of live projectiles of a type.
+     *
+     * @param projectileType The type of projectile
+     * @return The number of live projectiles of that type
+     */
+    public int liveCount(int projectileType) {
+        return liveCounts[projectileType];
+    }
+
+    /**
+     * This method returns how many spawns of a type were dropped at capacity.
+     *
+     * @param projectileType The type of projectile
+     * @return The number of dropped spawns
+     */
+    public int exhaustedCount(int projectileType) {
+        return exhaustedCounts[projectileType];
+    }
+
+    /**
+     * This method returns how many projectiles of a type were ever spawned.
+     *
+     * @param projectileType The type of projectile
+     * @return The number of successful spawns
+     */
+    public long spawnedCount(int projectileType) {
+        return spawnedCounts[projectileType];
+    }
+}
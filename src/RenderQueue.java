@@ -0,0 +1,230 @@
+import bagel.Font;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-frame queue of sprite and text draws.
+ * Draws are collected while the frame is updated and submitted together at the
+ * end of the frame, sorted by layer and then by texture, so every sprite sharing
+ * a texture within a layer is drawn in one uninterrupted run (a batch).
+ * Draws with the same layer and texture keep the order they were queued in.
+ * A draw can carry the position at the start of the simulation tick as well as
+ * the current one; submitting with a blend factor places it between the two, so
+ * motion stays smooth when the screen refreshes faster than the simulation ticks.
+ * When rendering is disabled, as in headless runs, draws are dropped on arrival.
+ */
+public class RenderQueue {
+    // Layers, drawn from lowest to highest
+    public static final int BACKGROUND = 0;
+    public static final int SCREEN = 1;      // Start and end screen text and sprites
+    public static final int STATIC = 2;      // Pre-rendered walls and rivers
+    public static final int FLOOR = 3;       // Rivers, treasure boxes, restart areas
+    public static final int OBSTACLES = 4;   // Doors, walls, tables and baskets
+    public static final int ITEMS = 5;
+    public static final int ENEMIES = 6;
+    public static final int PLAYER = 7;
+    public static final int PROJECTILES = 8;
+    public static final int HUD = 9;
+    public static final int OVERLAY = 10;    // Store menu
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Stable ids for every texture or font seen so far, used as the secondary sort key
+    private static final Map<Object, Integer> TEXTURE_IDS = new IdentityHashMap<>();
+
+    private static boolean enabled = true;
+    private static int size = 0;
+    private static long[] keys = new long[INITIAL_CAPACITY];
+    private static Object[] textures = new Object[INITIAL_CAPACITY];
+    private static String[] texts = new String[INITIAL_CAPACITY];
+    private static double[] xs = new double[INITIAL_CAPACITY];
+    private static double[] ys = new double[INITIAL_CAPACITY];
+    private static double[] startXs = new double[INITIAL_CAPACITY];
+    private static double[] startYs = new double[INITIAL_CAPACITY];
+    private static boolean sorted = false;
+
+    private static int lastDrawCalls = 0;
+    private static int lastBatches = 0;
+
+    /**
+     * This method queues an image to be drawn centred at a position.
+     *
+     * @param layer The layer to draw in
+     * @param image The image to draw
+     * @param x     The x-coordinate of the image centre
+     * @param y     The y-coordinate of the image centre
+     */
+    public static void draw(int layer, Texture image, double x, double y) {
+        if (!enabled) return;
+        queue(layer, image, null, x, y, x, y);
+    }
+
+    /**
+     * This method queues an image that moved during the current tick.
+     *
+     * @param layer  The layer to draw in
+     * @param image  The image to draw
+     * @param startX The x-coordinate of the image centre at the start of the tick
+     * @param startY The y-coordinate of the image centre at the start of the tick
+     * @param x      The x-coordinate of the image centre now
+     * @param y      The y-coordinate of the image centre now
+     */
+    public static void draw(int layer, Texture image, double startX, double startY, double x, double y) {
+        if (!enabled) return;
+        queue(layer, image, null, startX, startY, x, y);
+    }
+
+    /**
+     * This method queues an image to be drawn with its top-left corner at a position.
+     *
+     * @param layer The layer to draw in
+     * @param image The image to draw
+     * @param x     The x-coordinate of the top-left corner
+     * @param y     The y-coordinate of the top-left corner
+     */
+    public static void drawFromTopLeft(int layer, Texture image, double x, double y) {
+        if (!enabled) return;
+        double centreX = x + image.getWidth() / 2;
+        double centreY = y + image.getHeight() / 2;
+        queue(layer, image, null, centreX, centreY, centreX, centreY);
+    }
+
+    /**
+     * This method queues a string to be drawn with a font.
+     *
+     * @param layer The layer to draw in
+     * @param font  The font to draw with
+     * @param text  The text to draw
+     * @param x     The x-coordinate of the start of the baseline
+     * @param y     The y-coordinate of the baseline
+     */
+    public static void drawString(int layer, Font font, String text, double x, double y) {
+        if (!enabled) return;
+        queue(layer, font, text, x, y, x, y);
+    }
+
+    /**
+     * This method sorts the queued draws, submits them and empties the queue.
+     */
+    public static void flush() {
+        submit(1);
+        clear();
+    }
+
+    /**
+     * This method sorts the queued draws and submits them, keeping them queued so
+     * the same tick can be shown again on the next screen refresh.
+     *
+     * @param alpha How far between the start and the end of the tick to draw
+     *              moving images, from 0 to 1
+     */
+    public static void submit(double alpha) {
+        if (!sorted) {
+            Arrays.sort(keys, 0, size);
+            sorted = true;
+        }
+
+        int batches = 0;
+        long previousGroup = -1;
+        for (int i = 0; i < size; i++) {
+            int index = (int) (keys[i] & 0xFFFFFFFFL);
+            long group = keys[i] >>> 32;
+            if (group != previousGroup) {
+                batches++;
+                previousGroup = group;
+            }
+
+            if (texts[index] == null) {
+                double x = startXs[index] + (xs[index] - startXs[index]) * alpha;
+                double y = startYs[index] + (ys[index] - startYs[index]) * alpha;
+                ((Texture) textures[index]).getImage().draw(x, y);
+            } else {
+                ((Font) textures[index]).drawString(texts[index], xs[index], ys[index]);
+            }
+        }
+
+        lastDrawCalls = size;
+        lastBatches = batches;
+    }
+
+    /**
+     * This method discards the queued draws without submitting them.
+     */
+    public static void clear() {
+        Arrays.fill(textures, 0, size, null);
+        Arrays.fill(texts, 0, size, null);
+        size = 0;
+        sorted = false;
+    }
+
+    /**
+     * This method turns rendering on or off. Game logic runs the same either way.
+     *
+     * @param enabled false to drop every draw, e.g. when running without a window
+     */
+    public static void setEnabled(boolean enabled) {
+        RenderQueue.enabled = enabled;
+        clear();
+    }
+
+    /**
+     * This method checks whether draws are being collected.
+     *
+     * @return true if rendering is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method returns the number of draws submitted by the last flush.
+     *
+     * @return The draw calls of the last frame
+     */
+    public static int getDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    /**
+     * This method returns the number of same-texture runs submitted by the last flush.
+     *
+     * @return The batches of the last frame
+     */
+    public static int getBatches() {
+        return lastBatches;
+    }
+
+    private static void queue(int layer, Object texture, String text,
+                              double startX, double startY, double x, double y) {
+        if (size == keys.length) grow();
+        sorted = false;
+
+        Integer textureId = TEXTURE_IDS.get(texture);
+        if (textureId == null) {
+            textureId = TEXTURE_IDS.size();
+            TEXTURE_IDS.put(texture, textureId);
+        }
+
+        // Layer, then texture, then queue order; the low bits double as the entry index
+        keys[size] = ((long) layer << 52) | ((long) textureId << 32) | size;
+        textures[size] = texture;
+        texts[size] = text;
+        xs[size] = x;
+        ys[size] = y;
+        startXs[size] = startX;
+        startYs[size] = startY;
+        size++;
+    }
+
+    private static void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        textures = Arrays.copyOf(textures, capacity);
+        texts = Arrays.copyOf(texts, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        startXs = Arrays.copyOf(startXs, capacity);
+        startYs = Arrays.copyOf(startYs, capacity);
+    }
+}
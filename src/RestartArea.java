@@ -1,5 +1,3 @@
-import bagel.Image;
-import bagel.Input;
 import bagel.Keys;
 import bagel.util.Point;
 
@@ -7,14 +5,17 @@ import bagel.util.Point;
  * Represents an area in the Prep or End Room where the player can trigger a game reset.
  */
 public class RestartArea extends GameObject {
+    private final World world;
 
     /**
      * Constructs a RestartArea at the specified position.
      *
+     * @param world    The session the restart area resets
      * @param position The position of the restart area
      */
-    public RestartArea(Point position) {
-        super(position, new Image("res/restart_area.png")); // call GameObject constructor
+    public RestartArea(World world, Point position) {
+        super(position, TextureRegistry.get("res/restart_area.png")); // call GameObject constructor
+        this.world = world;
     }
 
     /**
@@ -24,9 +25,9 @@ public class RestartArea extends GameObject {
      * @param input  The current input from the player
      * @param player The player interacting with the area
      */
-    public void update(Input input, Player player) {
+    public void update(GameInput input, Player player) {
         if (hasCollidedWith(player) && input.wasPressed(Keys.ENTER)) {
-            ShadowDungeon.resetGameState(ShadowDungeon.getGameProps());
+            world.resetGameState();
         }
     }
 }
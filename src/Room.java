@@ -1,7 +1,5 @@
-import bagel.Input;
 import bagel.Keys;
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Abstract base class representing a room in the dungeon.
@@ -9,30 +7,89 @@ import java.util.List;
  */
 public abstract class Room {
 
+    public final World world;
+    public final int id;        // Index in the world's room graph
+    public final String name;
     public Player player;
     public boolean stopCurrentUpdateCall = false;
     public Store store;
     public boolean paused = false;
 
-    public ArrayList<Enemy> enemies = new ArrayList<>();
-    public ArrayList<TreasureBox> treasureBoxes = new ArrayList<>();
-    public ArrayList<ObstacleObject> obstacles = new ArrayList<>();
-    public ArrayList<River> rivers = new ArrayList<>();
+    // Every entity but the doors, and the views the systems walk
+    public final EntityStore entities = new EntityStore();
+    public final EntityStore.View enemies = entities.view(EntityStore.AI | EntityStore.HEALTH, EntityStore.ANY_COLLIDER);
+    public final EntityStore.View obstacles = entities.view(0, EntityStore.SOLID);
+    public final EntityStore.View rivers = entities.view(0, EntityStore.HAZARD);
+    public final EntityStore.View treasureBoxes = entities.view(EntityStore.REWARD, EntityStore.LOCKED);
+    public final EntityStore.View keys = entities.view(0, EntityStore.PICKUP);
     public ArrayList<Door> doors = new ArrayList<>();
+    public final AiScheduler aiScheduler;
+    public final EnemyIntents enemyIntents = new EnemyIntents();
+
+    // Grid-aligned walls and rivers; tiles that do not fit stay in the lists above
+    public final TileLayer wallLayer;
+    public final TileLayer riverLayer;
+    public int wallLayerOrder = 0; // First entity id after the walls began, where the wall layer sits among obstacles
+
+    // Pre-rendered sprites that never change: tiles, walls and unbreakable obstacles
+    public StaticLayer staticLayer = new StaticLayer("static", RenderQueue.STATIC);
+
+    // Broadphase grids indexed by position in the lists above
+    public SpatialHashGrid obstacleGrid;
+    public SpatialHashGrid doorGrid;
+    public SpatialHashGrid enemyGrid;
+
+    // Directions toward the player for chasing enemies; null in rooms without any
+    public FlowField flowField;
+
+    /**
+     * Create an empty room belonging to a game session.
+     *
+     * @param world The session the room is part of
+     * @param id    The room's id in the room graph
+     */
+    protected Room(World world, int id) {
+        this.world = world;
+        this.id = id;
+        this.name = world.config.rooms.getName(id);
+        aiScheduler = new AiScheduler(world.config.aiNearDistance, world.config.aiFarBudget);
+        wallLayer = createTileLayer("res/wall.png");
+        riverLayer = createTileLayer("res/river.png");
+    }
 
     /**
      * Initialize all entities for the room from the properties file.
      *
-     * @param gameProperties Properties object containing entity information
+     * @param config The game configuration containing entity placements
+     */
+    public abstract void initEntities(GameConfig config);
+
+    /**
+     * This method adds the room's rivers, walls and unbreakable obstacles to the
+     * pre-rendered layer. Breakable obstacles are left out and drawn as sprites,
+     * so breaking one never re-renders the layer. Call it once the entity lists are filled.
      */
-    public abstract void initEntities(java.util.Properties gameProperties);
+    protected void buildStaticLayers() {
+        riverLayer.addTo(staticLayer);
+        for (int i = 0; i < rivers.size(); i++) {
+            int id = rivers.get(i);
+            staticLayer.add(entities.sprite[id], entities.x[id], entities.y[id]);
+        }
+        wallLayer.addTo(staticLayer);
+        for (int i = 0; i < obstacles.size(); i++) {
+            int id = obstacles.get(i);
+            if (!entities.has(id, EntityStore.HEALTH)) {
+                staticLayer.add(entities.sprite[id], entities.x[id], entities.y[id]);
+            }
+        }
+    }
 
     /**
      * Update all entities in the room each frame.
      *
      * @param input Input object containing player actions
      */
-    public abstract void update(Input input);
+    public abstract void update(GameInput input);
 
     /**
      * Set the player for this room.
@@ -57,7 +114,7 @@ public abstract class Room {
      *
      * @param input Input object containing player actions
      */
-    public void checkStoreState(Input input) {
+    public void checkStoreState(GameInput input) {
         if (input.wasPressed(Keys.SPACE) && store != null) {
             paused = !paused;
             store.toggle();
@@ -91,34 +148,104 @@ public abstract class Room {
     }
 
     /**
-     * Find a door in this room by its destination room name.
+     * Called when the player enters the room through a door, before they are moved to it.
      *
-     * @param roomName The destination room name
-     * @return The door leading to the specified room
+     * @param arrival The door the player arrives at
      */
-    public abstract Door findDoorByDestination(String roomName);
+    public void onEnter(Door arrival) {
+    }
 
     /**
-     * Helper for single-door rooms to use no-argument version.
+     * Create the room's doors from the room graph, in the order they are declared.
      *
-     * @return The door in the room
+     * @param battleRoom The battle room the doors belong to, or null in other rooms
      */
-    public Door findDoorByDestination() {
-        return findDoorByDestination(null);
+    protected void addDoors(BattleRoom battleRoom) {
+        RoomGraph graph = world.config.rooms;
+        for (int door = 0; door < graph.getDoorCount(id); door++) {
+            doors.add(new Door(world, graph.getDoorPosition(id, door), graph.getDoorTarget(id, door),
+                    graph.getArrivalDoor(id, door), battleRoom));
+        }
+    }
+
+    /**
+     * Update and draw the doors in order, stopping after one that sent the player to another room.
+     */
+    protected void updateDoors() {
+        for (int i = 0; i < doors.size(); i++) {
+            Door door = doors.get(i);
+            door.update(player);
+            door.draw();
+            if (stopCurrentUpdateCall) return;
+        }
+    }
+
+    /**
+     * Create an empty tile layer covering the window.
+     *
+     * @param imagePath The image shared by every tile in the layer
+     * @return The new tile layer
+     */
+    private TileLayer createTileLayer(String imagePath) {
+        return new TileLayer(TextureRegistry.get(imagePath), world.config.tilesCellSize,
+                world.screenWidth, world.screenHeight);
+    }
+
+    /**
+     * Build the collision grids for the entities created by initEntities, and
+     * the flow field if any enemy chases the player.
+     * Obstacles and doors never move, so they are only inserted here.
+     */
+    public void buildCollisionGrids() {
+        double cellSize = world.config.collisionGridCellSize;
+        obstacleGrid = new SpatialHashGrid(world.screenWidth, world.screenHeight, cellSize);
+        doorGrid = new SpatialHashGrid(world.screenWidth, world.screenHeight, cellSize);
+        enemyGrid = new SpatialHashGrid(world.screenWidth, world.screenHeight, cellSize);
+
+        for (int i = 0; i < obstacles.size(); i++) {
+            int id = obstacles.get(i);
+            insertIntoGrid(obstacleGrid, id, entities.sprite[id], entities.x[id], entities.y[id]);
+        }
+        for (int i = 0; i < doors.size(); i++) {
+            insertIntoGrid(doorGrid, i, doors.get(i).getImage(), doors.get(i).getPosition().x,
+                    doors.get(i).getPosition().y);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            int id = enemies.get(i);
+            insertIntoGrid(enemyGrid, id, entities.sprite[id], entities.x[id], entities.y[id]);
+            if (entities.ai[id] == EntityStore.CHASE && flowField == null) {
+                flowField = new FlowField(this, world.config.flowFieldCellSize, Archetypes.CHASER_BULLET_KIN);
+            }
+        }
+    }
+
+    /**
+     * Re-bucket an enemy in the collision grid after it has moved.
+     *
+     * @param id The entity id of the enemy
+     */
+    public void updateEnemyCell(int id) {
+        double halfWidth = entities.sprite[id].getWidth() / 2;
+        double halfHeight = entities.sprite[id].getHeight() / 2;
+        enemyGrid.move(id, entities.x[id] - halfWidth, entities.y[id] - halfHeight,
+                entities.x[id] + halfWidth, entities.y[id] + halfHeight);
+    }
+
+    private static void insertIntoGrid(SpatialHashGrid grid, int id, Texture image, double x, double y) {
+        double halfWidth = image.getWidth() / 2;
+        double halfHeight = image.getHeight() / 2;
+        grid.insert(id, x - halfWidth, y - halfHeight, x + halfWidth, y + halfHeight);
     }
 
     /**
      * Handles firing and updating all bullets in the room.
      *
-     * @param input       Input object containing player actions
-     * @param obstacles   List of obstacles in the room
-     * @param doors       List of doors in the room
-     * @param enemies     List of enemies in the room
+     * @param input Input object containing player actions
      */
-    public void handleBullets(Input input, List<ObstacleObject> obstacles, List<Door> doors, List<Enemy> enemies) {
+    public void handleBullets(GameInput input) {
         if (player != null) {
-            Bullet.handleFiring(input, player.getPosition(), player);
-            Bullet.updateAll(player, obstacles, doors, enemies);
+            Bullet.handleFiring(world, input, player);
+            Bullet.updateAll(player, this);
         }
     }
 }
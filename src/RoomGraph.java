@@ -0,0 +1,180 @@
+import bagel.util.Point;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The rooms of the dungeon and the doors between them, resolved to integer ids.
+ * Rooms are numbered in the order the rooms key declares them and doors in
+ * the order their room's door key lists them. Every door knows the id of the
+ * room it leads to and the door the player arrives at there, so walking
+ * through a door is two array lookups however many rooms there are.
+ *
+ * The player arrives at the first door of the target room that leads back to
+ * the room they came from, or at its first door when none does.
+ */
+public final class RoomGraph {
+    public static final int PREP = 0;
+    public static final int BATTLE = 1;
+    public static final int END = 2;
+    private static final String[] TYPE_NAMES = {"prep", "battle", "end"};
+
+    private final String[] names;
+    private final int[] types;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Point[][] doorPositions;  // Per room, per door
+    private final int[][] doorTargets;      // Per room, per door: the room it leads to
+    private final int[][] arrivalDoors;     // Per room, per door: the door of the target room the player arrives at
+    private final int gameOverRoom;
+
+    /**
+     * This constructor resolves the rooms and doors to ids and checks that every door leads somewhere.
+     *
+     * @param names        The room names, the first being the starting room
+     * @param types        The type of each room: PREP, BATTLE or END
+     * @param doors        The door placements of each room, tagged with the name of the room they lead to
+     * @param gameOverRoom The name of the room the player is sent to when they die
+     * @throws IllegalArgumentException if a name is repeated, a door leads to an unknown room or
+     *                                  to a room without doors, or the game over room is not an end room
+     */
+    public RoomGraph(String[] names, int[] types, GameConfig.Placement[][] doors, String gameOverRoom) {
+        if (names.length == 0) throw new IllegalArgumentException("The room graph has no rooms");
+        this.names = names.clone();
+        this.types = types.clone();
+        for (int room = 0; room < names.length; room++) {
+            if (ids.put(names[room], room) != null) {
+                throw new IllegalArgumentException("Room '" + names[room] + "' is declared twice");
+            }
+        }
+
+        doorPositions = new Point[names.length][];
+        doorTargets = new int[names.length][];
+        for (int room = 0; room < names.length; room++) {
+            doorPositions[room] = new Point[doors[room].length];
+            doorTargets[room] = new int[doors[room].length];
+            for (int door = 0; door < doors[room].length; door++) {
+                Integer target = ids.get(doors[room][door].tag);
+                if (target == null) {
+                    throw new IllegalArgumentException("A door in room '" + names[room]
+                            + "' leads to unknown room '" + doors[room][door].tag + "'");
+                }
+                doorPositions[room][door] = doors[room][door].toPoint();
+                doorTargets[room][door] = target;
+            }
+        }
+
+        arrivalDoors = new int[names.length][];
+        for (int room = 0; room < names.length; room++) {
+            arrivalDoors[room] = new int[doorTargets[room].length];
+            for (int door = 0; door < doorTargets[room].length; door++) {
+                int target = doorTargets[room][door];
+                if (doorTargets[target].length == 0) {
+                    throw new IllegalArgumentException("A door in room '" + names[room]
+                            + "' leads to room '" + names[target] + "', which has no door to arrive at");
+                }
+                arrivalDoors[room][door] = findArrivalDoor(target, room);
+            }
+        }
+
+        Integer end = ids.get(gameOverRoom);
+        if (end == null || types[end] != END) {
+            throw new IllegalArgumentException("Game over room '" + gameOverRoom + "' must be an end room");
+        }
+        this.gameOverRoom = end;
+    }
+
+    /**
+     * This method parses a room type name.
+     *
+     * @param name The type name: prep, battle or end
+     * @return The type, or -1 if the name is not a type
+     */
+    public static int parseType(String name) {
+        for (int type = 0; type < TYPE_NAMES.length; type++) {
+            if (TYPE_NAMES[type].equals(name)) return type;
+        }
+        return -1;
+    }
+
+    /**
+     * This method finds the door of a room the player arrives at when coming from another room.
+     *
+     * @param room The room entered
+     * @param from The room the player came from
+     * @return The first door of the room that leads back, or 0 when none does
+     */
+    public int findArrivalDoor(int room, int from) {
+        for (int door = 0; door < doorTargets[room].length; door++) {
+            if (doorTargets[room][door] == from) return door;
+        }
+        return 0;
+    }
+
+    /**
+     * This method looks up a room by name. It is meant for loading and tools, not for room transitions.
+     *
+     * @param name The name of the room
+     * @return The room's id, or -1 if there is no such room
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * This method finds the first room of a type, in declaration order.
+     *
+     * @param type The room type
+     * @return The room's id, or -1 if there is none
+     */
+    public int firstOfType(int type) {
+        for (int room = 0; room < types.length; room++) {
+            if (types[room] == type) return room;
+        }
+        return -1;
+    }
+
+    /** @return The number of rooms */
+    public int size() {
+        return names.length;
+    }
+
+    /** @return The name of a room */
+    public String getName(int room) {
+        return names[room];
+    }
+
+    /** @return The type of a room */
+    public int getType(int room) {
+        return types[room];
+    }
+
+    /** @return The room the game starts in */
+    public int getStartRoom() {
+        return 0;
+    }
+
+    /** @return The room the player is sent to when they die */
+    public int getGameOverRoom() {
+        return gameOverRoom;
+    }
+
+    /** @return The number of doors in a room */
+    public int getDoorCount(int room) {
+        return doorTargets[room].length;
+    }
+
+    /** @return The position of a door */
+    public Point getDoorPosition(int room, int door) {
+        return doorPositions[room][door];
+    }
+
+    /** @return The room a door leads to */
+    public int getDoorTarget(int room, int door) {
+        return doorTargets[room][door];
+    }
+
+    /** @return The door of the target room the player arrives at through a door */
+    public int getArrivalDoor(int room, int door) {
+        return arrivalDoors[room][door];
+    }
+}
@@ -0,0 +1,94 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+import java.util.EnumSet;
+import java.util.Random;
+
+/**
+ * Seeded, repeatable input that plays the game without a person at the keyboard.
+ * It picks the robot, walks up into the first battle room and then wanders,
+ * aims and shoots at random. The same seed always produces the same frames.
+ */
+public class ScriptedInput implements GameInput {
+    private static final Keys[] MOVES = {Keys.W, Keys.A, Keys.S, Keys.D};
+    private static final int ENTRY_FRAMES = 90;     // Frames spent walking up out of the prep room
+    private static final int MOVE_INTERVAL = 20;    // Frames between changes of direction
+    private static final int AIM_INTERVAL = 7;      // Frames between changes of aim
+
+    private final Random random;
+    private final double width;
+    private final double height;
+    private final EnumSet<Keys> down = EnumSet.noneOf(Keys.class);
+    private final EnumSet<Keys> pressed = EnumSet.noneOf(Keys.class);
+    private final EnumSet<MouseButtons> buttons = EnumSet.noneOf(MouseButtons.class);
+    private double mouseX;
+    private double mouseY;
+    private int frame = -1;
+
+    /**
+     * This constructor creates a script for a screen of the given size.
+     *
+     * @param seed   The seed for the script's choices
+     * @param width  The width of the screen
+     * @param height The height of the screen
+     */
+    public ScriptedInput(long seed, double width, double height) {
+        this.random = new Random(seed);
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * This method chooses the keys, buttons and mouse position for the next tick.
+     */
+    @Override
+    public void nextTick() {
+        frame++;
+        pressed.clear();
+
+        if (frame == 0) {
+            pressed.add(Keys.R);
+        } else if (frame < ENTRY_FRAMES) {
+            down.clear();
+            down.add(Keys.W);
+        } else {
+            if (frame % MOVE_INTERVAL == 0) {
+                down.clear();
+                int move = random.nextInt(MOVES.length + 2);
+                if (move < MOVES.length) down.add(MOVES[move]);
+                if (random.nextBoolean()) down.add(MOVES[random.nextInt(MOVES.length)]);
+            }
+            if (frame % AIM_INTERVAL == 0) {
+                mouseX = random.nextInt((int) width);
+                mouseY = random.nextInt((int) height);
+            }
+            buttons.clear();
+            if (random.nextInt(3) > 0) buttons.add(MouseButtons.LEFT);
+            if (random.nextInt(50) == 0) pressed.add(Keys.K);
+        }
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return down.contains(key);
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return pressed.contains(key);
+    }
+
+    @Override
+    public boolean isDown(MouseButtons button) {
+        return buttons.contains(button);
+    }
+
+    @Override
+    public double getMouseX() {
+        return mouseX;
+    }
+
+    @Override
+    public double getMouseY() {
+        return mouseY;
+    }
+}
@@ -1,191 +1,177 @@
 import bagel.*;
-import bagel.util.Point;
-import java.util.Properties;
+import java.io.IOException;
+import java.util.Arrays;
+import jdk.jfr.Recording;
 
 /**
- * Main game class that manages initializing the rooms
- * and moving the player between rooms.
+ * Main game class that opens the window and runs a World in it,
+ * on a fixed timestep driven by the window's frames.
  */
 public class ShadowDungeon extends AbstractGame {
-    public static Properties gameProps;
-    public static Properties messageProps;
-    public static double screenWidth;
-    public static double screenHeight;
-
-    private static String currRoomName;
-    private static PrepRoom prepRoom;
-    private static BattleRoom battleRoomA;
-    private static BattleRoom battleRoomB;
-    private static EndRoom endRoom;
-    private static Player player;
-    private static Store store;
-    private final Image background;
-
-    public static final String PREP_ROOM_NAME = "prep";
-    public static final String BATTLE_ROOM_A_NAME = "A";
-    public static final String BATTLE_ROOM_B_NAME = "B";
-    public static final String END_ROOM_NAME = "end";
+    private static final Keys PROFILER_KEY = Keys.F3;   // Shows and hides the frame profiler overlay
+    private static final int PROFILER_FONT_SIZE = 14;
 
-    /**
-     * Constructor for the Shadow Dungeon game.
-     *
-     * @param gameProps    Properties containing game settings
-     * @param messageProps Properties containing message strings
-     */
-    public ShadowDungeon(Properties gameProps, Properties messageProps) {
-        super(Integer.parseInt(gameProps.getProperty("window.width")),
-                Integer.parseInt(gameProps.getProperty("window.height")),
-                "Shadow Dungeon");
-
-        ShadowDungeon.gameProps = gameProps;
-        ShadowDungeon.messageProps = messageProps;
-        screenWidth = Integer.parseInt(gameProps.getProperty("window.width"));
-        screenHeight = Integer.parseInt(gameProps.getProperty("window.height"));
-        this.background = new Image("res/background.png");
-
-        resetGameState(gameProps);
-    }
+    private final GameConfig config;
+    private final World world;
+    private final BagelInput bagelInput = new BagelInput();
+    private GameInput tickInput = bagelInput; // What the simulation reads: live, recorded or replayed
+
+    // Fixed-timestep clock: the simulation advances in whole ticks, rendering as often as the screen refreshes
+    private long tickNanos;
+    private long lastFrameNanos = 0;
+    private long accumulatedNanos = 0;
+    private double timeScale = 1;
+
+    private boolean profileRun = false;     // Time every frame and print a summary on exit
+    private boolean showProfiler = false;
 
     /**
-     * Resets the game state and initializes all rooms and the player.
+     * Constructor for the Shadow Dungeon game.
      *
-     * @param gameProps Properties object containing game configuration
+     * @param config The parsed game configuration
      */
-    public static void resetGameState(Properties gameProps) {
-        prepRoom = new PrepRoom();
-        battleRoomA = new BattleRoom(BATTLE_ROOM_A_NAME, BATTLE_ROOM_B_NAME);
-        battleRoomB = new BattleRoom(BATTLE_ROOM_B_NAME, END_ROOM_NAME);
-        endRoom = new EndRoom();
-
-        prepRoom.initEntities(gameProps);
-        battleRoomA.initEntities(gameProps);
-        battleRoomB.initEntities(gameProps);
-        endRoom.initEntities(gameProps);
-
-        currRoomName = PREP_ROOM_NAME;
-
-        ShadowDungeon.player = new Player(IOUtils.parseCoords(gameProps.getProperty("player.start")));
-        ShadowDungeon.store = new Store(IOUtils.parseCoords(gameProps.getProperty("store")), player);
-        prepRoom.setPlayer(player);
-        prepRoom.setStore(store);
-        Fireball.clearAll();
-        Bullet.clearAll();
+    public ShadowDungeon(GameConfig config) {
+        super(config.windowWidth, config.windowHeight, "Shadow Dungeon");
+        this.config = config;
+        this.tickNanos = 1_000_000_000L / config.tickRate;
+        UserInterface.setConfig(config);
+        world = new World(config);
     }
 
     /**
-     * Render the relevant screen based on the keyboard input given by the user
-     * and the status of the gameplay.
+     * Run however many simulation ticks have come due since the last frame,
+     * then render the latest tick, blended towards the next one.
+     * When frames take too long, several ticks run before anything is drawn,
+     * up to gamePlay.maxTicksPerFrame; beyond that the simulation slows down.
      *
      * @param input The current mouse/keyboard input
      */
     @Override
     protected void update(Input input) {
+        FrameProfiler profiler = world.profiler;
+        long frameStart = profiler.start();
+
         if (input.wasPressed(Keys.ESCAPE)) {
             Window.close();
         }
+        if (input.wasPressed(PROFILER_KEY)) {
+            showProfiler = !showProfiler;
+            profiler.setEnabled(profileRun || showProfiler);
+        }
 
-        background.draw(Window.getWidth() / 2.0, Window.getHeight() / 2.0);
+        long now = System.nanoTime();
+        accumulatedNanos += lastFrameNanos == 0 ? tickNanos : (long) ((now - lastFrameNanos) * timeScale);
+        lastFrameNanos = now;
+
+        long time = profiler.start();
+        bagelInput.poll(input);
+        int ticks = 0;
+        while (accumulatedNanos >= tickNanos && ticks < config.maxTicksPerFrame) {
+            if (tickInput instanceof InputReplay && ((InputReplay) tickInput).isFinished()) {
+                finishReplay((InputReplay) tickInput);
+                return;
+            }
+            RenderQueue.clear();
+            tickInput.nextTick();
+            world.step(tickInput);
+            accumulatedNanos -= tickNanos;
+            ticks++;
+        }
+        if (accumulatedNanos >= tickNanos) {
+            accumulatedNanos = tickNanos - 1; // Drop the backlog rather than spiral
+        }
+        time = profiler.lap(FrameProfiler.SIMULATION, time);
 
-        switch (currRoomName) {
-            case PREP_ROOM_NAME -> prepRoom.update(input);
-            case BATTLE_ROOM_A_NAME -> battleRoomA.update(input);
-            case BATTLE_ROOM_B_NAME -> battleRoomB.update(input);
-            default -> endRoom.update(input);
+        if (showProfiler) {
+            UserInterface.drawLines(RenderQueue.OVERLAY, profiler.getOverlayLines(), PROFILER_FONT_SIZE,
+                    config.healthStat.x, config.keyStat.y + 2 * PROFILER_FONT_SIZE);
+            UserInterface.drawLines(RenderQueue.OVERLAY, world.getCurrentRoom().aiScheduler.getOverlayLines(),
+                    PROFILER_FONT_SIZE, config.healthStat.x, config.keyStat.y + PROFILER_FONT_SIZE);
         }
+        RenderQueue.submit((double) accumulatedNanos / tickNanos);
+        profiler.lap(FrameProfiler.RENDER, time);
+        profiler.lap(FrameProfiler.FRAME, frameStart);
     }
 
     /**
-     * Change the current room and move the player to the corresponding door.
+     * Report whether a replay shown in the window ended in the recorded state, then close the window.
      *
-     * @param roomName The name of the room to switch to
+     * @param replay The finished replay
      */
-    public static void changeRoom(String roomName) {
-        Bullet.clearAll();
-        Fireball.clearAll();
-
-        Door nextDoor;
-        switch (roomName) {
-            case PREP_ROOM_NAME -> {
-                nextDoor = prepRoom.findDoorByDestination();
-                if (currRoomName.equals(BATTLE_ROOM_A_NAME)) battleRoomA.stopCurrentUpdateCall();
-                currRoomName = PREP_ROOM_NAME;
-                nextDoor.unlock(true);
-                player.move(nextDoor.getPosition().x, nextDoor.getPosition().y);
-                prepRoom.setPlayer(player);
-                prepRoom.setStore(store);
-            }
-            case BATTLE_ROOM_A_NAME -> {
-                nextDoor = battleRoomA.findDoorByDestination(currRoomName);
-                if (currRoomName.equals(BATTLE_ROOM_B_NAME)) battleRoomB.stopCurrentUpdateCall();
-                else if (currRoomName.equals(PREP_ROOM_NAME)) prepRoom.stopCurrentUpdateCall();
-                currRoomName = BATTLE_ROOM_A_NAME;
-                if (!battleRoomA.isComplete()) nextDoor.setShouldLockAgain();
-                nextDoor.unlock(true);
-                player.move(nextDoor.getPosition().x, nextDoor.getPosition().y);
-                battleRoomA.setPlayer(player);
-                battleRoomA.setStore(store);
-            }
-            case BATTLE_ROOM_B_NAME -> {
-                nextDoor = battleRoomB.findDoorByDestination(currRoomName);
-                if (currRoomName.equals(BATTLE_ROOM_A_NAME)) battleRoomA.stopCurrentUpdateCall();
-                else if (currRoomName.equals(END_ROOM_NAME)) endRoom.stopCurrentUpdateCall();
-                currRoomName = BATTLE_ROOM_B_NAME;
-                if (!battleRoomB.isComplete()) nextDoor.setShouldLockAgain();
-                nextDoor.unlock(true);
-                player.move(nextDoor.getPosition().x, nextDoor.getPosition().y);
-                battleRoomB.setPlayer(player);
-                battleRoomB.setStore(store);
-            }
-            default -> {
-                nextDoor = endRoom.findDoorByDestination();
-                if (currRoomName.equals(BATTLE_ROOM_B_NAME)) battleRoomB.stopCurrentUpdateCall();
-                currRoomName = END_ROOM_NAME;
-                nextDoor.unlock(true);
-                player.move(nextDoor.getPosition().x, nextDoor.getPosition().y);
-                endRoom.setPlayer(player);
-                endRoom.setStore(store);
-            }
-        }
+    private void finishReplay(InputReplay replay) {
+        GameSnapshot finalState = GameSnapshot.capture(world);
+        System.out.println((finalState.equals(replay.getRecordedState()) ? "Replay matched: " : "Replay diverged: ")
+                + finalState + " (recorded " + replay.getRecordedState() + ")");
+        Window.close();
     }
 
     /**
-     * Changes the current room to the End Room due to game over.
+     * Main entry point for the game.
+     * Options: "--headless ..." runs without a window (see HeadlessGame),
+     * "--batch ..." runs many headless sessions in parallel (see BatchRunner),
+     * "--record FILE" records the session's input, "--replay FILE" plays a
+     * recording back, "--speed X" runs the simulation X times faster and
+     * "--profile" times every frame and prints a summary on exit, "--alloc"
+     * also counts the bytes each phase allocates.
+     * "--jfr FILE" writes a Java Flight Recording including the GameEvents.
+     * F3 shows the frame profiler overlay.
+     *
+     * @param args Command line arguments
+     * @throws IOException if a recording cannot be read or written
      */
-    public static void changeToGameOverRoom() {
-        switch (currRoomName) {
-            case PREP_ROOM_NAME -> prepRoom.stopCurrentUpdateCall();
-            case BATTLE_ROOM_A_NAME -> battleRoomA.stopCurrentUpdateCall();
-            case BATTLE_ROOM_B_NAME -> battleRoomB.stopCurrentUpdateCall();
-            default -> {}
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            HeadlessGame.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
         }
 
-        endRoom.isGameOver();
-        currRoomName = END_ROOM_NAME;
-        Point startPos = IOUtils.parseCoords(gameProps.getProperty("player.start"));
-        player.move(startPos.x, startPos.y);
-        endRoom.setPlayer(player);
-        endRoom.setStore(store);
-    }
-
-    /** @return The game properties object */
-    public static Properties getGameProps() {
-        return gameProps;
-    }
+        // Start recording before the rooms are loaded so their load events are captured
+        Recording recording = null;
+        int jfrIndex = Arrays.asList(args).indexOf("--jfr");
+        if (jfrIndex >= 0 && jfrIndex + 1 < args.length) {
+            recording = GameEvents.startRecording(args[jfrIndex + 1]);
+        }
 
-    /** @return The message properties object */
-    public static Properties getMessageProps() {
-        return messageProps;
-    }
+        GameConfig config = new GameConfig(IOUtils.readPropertiesFile("res/app.properties"),
+                IOUtils.readPropertiesFile("res/message.properties"));
+        ShadowDungeon game = new ShadowDungeon(config);
+
+        InputRecorder recorder = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--record" -> game.tickInput = recorder = new InputRecorder(game.bagelInput, args[++i], config.tickRate);
+                case "--replay" -> {
+                    InputReplay replay = new InputReplay(args[++i]);
+                    game.tickNanos = 1_000_000_000L / replay.getTickRate();
+                    game.tickInput = replay;
+                }
+                case "--speed" -> game.timeScale = Double.parseDouble(args[++i]);
+                case "--jfr" -> i++;    // Already started above
+                case "--profile" -> {
+                    game.profileRun = true;
+                    game.world.profiler.setEnabled(true);
+                }
+                case "--alloc" -> {
+                    game.profileRun = true;
+                    game.world.profiler.setEnabled(true);
+                    game.world.profiler.setAllocationTracking(true);
+                }
+                default -> throw new IllegalArgumentException("Unknown option '" + args[i] + "'");
+            }
+        }
 
-    /**
-     * Main entry point for the game.
-     *
-     * @param args Command line arguments (unused)
-     */
-    public static void main(String[] args) {
-        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
-        Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
-        ShadowDungeon game = new ShadowDungeon(gameProps, messageProps);
         game.run();
+
+        if (recorder != null) {
+            recorder.finish(GameSnapshot.capture(game.world));
+        }
+        if (game.world.profiler.isEnabled()) {
+            System.out.println(game.world.profiler.getSummary());
+        }
+        GameEvents.stopRecording(recording);
     }
 }
@@ -0,0 +1,203 @@
+import java.util.Arrays;
+
+/**
+ * Uniform grid used as a collision broadphase for a room.
+ * Each entity is registered under an integer id (its entity id, or its index in the room's door list)
+ * and bucketed into every cell its bounding box overlaps, so a query only
+ * returns entities that share a cell with the queried box.
+ */
+public class SpatialHashGrid {
+    private static final int INITIAL_BUCKET_SIZE = 4;
+
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+
+    // Cell range covered by each id, -1 in minCol when the id is not in the grid
+    private int[] minCols = new int[0];
+    private int[] minRows = new int[0];
+    private int[] maxCols = new int[0];
+    private int[] maxRows = new int[0];
+
+    // Query results and per-id stamps used to skip duplicates across cells
+    private int[] results = new int[0];
+    private int[] stamps = new int[0];
+    private int currentStamp = 0;
+
+    /**
+     * This method constructs a grid covering the given area.
+     * Boxes outside the area are clamped into the border cells.
+     *
+     * @param width    The width of the covered area
+     * @param height   The height of the covered area
+     * @param cellSize The side length of a cell
+     */
+    public SpatialHashGrid(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.buckets = new int[cols * rows][];
+        this.bucketSizes = new int[cols * rows];
+    }
+
+    /**
+     * This method adds an entity to every cell its bounding box overlaps.
+     *
+     * @param id     The id of the entity
+     * @param left   Left edge of the bounding box
+     * @param top    Top edge of the bounding box
+     * @param right  Right edge of the bounding box
+     * @param bottom Bottom edge of the bounding box
+     */
+    public void insert(int id, double left, double top, double right, double bottom) {
+        ensureCapacity(id + 1);
+        minCols[id] = toCol(left);
+        minRows[id] = toRow(top);
+        maxCols[id] = toCol(right);
+        maxRows[id] = toRow(bottom);
+        addToCells(id);
+    }
+
+    /**
+     * This method re-buckets an entity after it moved.
+     * Nothing is done if the entity still overlaps the same cells.
+     *
+     * @param id     The id of the entity
+     * @param left   Left edge of the new bounding box
+     * @param top    Top edge of the new bounding box
+     * @param right  Right edge of the new bounding box
+     * @param bottom Bottom edge of the new bounding box
+     */
+    public void move(int id, double left, double top, double right, double bottom) {
+        int minCol = toCol(left);
+        int minRow = toRow(top);
+        int maxCol = toCol(right);
+        int maxRow = toRow(bottom);
+        if (id < minCols.length && minCols[id] == minCol && minRows[id] == minRow
+                && maxCols[id] == maxCol && maxRows[id] == maxRow) {
+            return;
+        }
+        remove(id);
+        insert(id, left, top, right, bottom);
+    }
+
+    /**
+     * This method removes an entity from the grid.
+     *
+     * @param id The id of the entity
+     */
+    public void remove(int id) {
+        if (id >= minCols.length || minCols[id] < 0) return;
+
+        for (int row = minRows[id]; row <= maxRows[id]; row++) {
+            for (int col = minCols[id]; col <= maxCols[id]; col++) {
+                int cell = row * cols + col;
+                int[] bucket = buckets[cell];
+                int size = bucketSizes[cell];
+                for (int i = 0; i < size; i++) {
+                    if (bucket[i] == id) {
+                        bucket[i] = bucket[size - 1];
+                        bucketSizes[cell] = size - 1;
+                        break;
+                    }
+                }
+            }
+        }
+        minCols[id] = -1;
+    }
+
+    /**
+     * This method finds every entity sharing a cell with the given box.
+     * The ids are available through {@link #resultAt(int)} in ascending order,
+     * so callers visit them in the same order as the room's entity list.
+     *
+     * @param left   Left edge of the queried box
+     * @param top    Top edge of the queried box
+     * @param right  Right edge of the queried box
+     * @param bottom Bottom edge of the queried box
+     * @return The number of ids found
+     */
+    public int query(double left, double top, double right, double bottom) {
+        if (++currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            currentStamp = 1;
+        }
+
+        int count = 0;
+        int maxCol = toCol(right);
+        int maxRow = toRow(bottom);
+        for (int row = toRow(top); row <= maxRow; row++) {
+            for (int col = toCol(left); col <= maxCol; col++) {
+                int cell = row * cols + col;
+                int[] bucket = buckets[cell];
+                for (int i = 0, size = bucketSizes[cell]; i < size; i++) {
+                    int id = bucket[i];
+                    if (stamps[id] != currentStamp) {
+                        stamps[id] = currentStamp;
+                        results[count++] = id;
+                    }
+                }
+            }
+        }
+
+        if (count > 1) Arrays.sort(results, 0, count);
+        return count;
+    }
+
+    /**
+     * This method returns an id found by the last query.
+     *
+     * @param index Position in the query results
+     * @return The id at that position
+     */
+    public int resultAt(int index) {
+        return results[index];
+    }
+
+    /**
+     * This method removes every entity from the grid.
+     */
+    public void clear() {
+        Arrays.fill(bucketSizes, 0);
+        Arrays.fill(minCols, -1);
+    }
+
+    private void addToCells(int id) {
+        for (int row = minRows[id]; row <= maxRows[id]; row++) {
+            for (int col = minCols[id]; col <= maxCols[id]; col++) {
+                int cell = row * cols + col;
+                int[] bucket = buckets[cell];
+                if (bucket == null) {
+                    bucket = buckets[cell] = new int[INITIAL_BUCKET_SIZE];
+                } else if (bucketSizes[cell] == bucket.length) {
+                    bucket = buckets[cell] = Arrays.copyOf(bucket, bucket.length * 2);
+                }
+                bucket[bucketSizes[cell]++] = id;
+            }
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= minCols.length) return;
+
+        int oldSize = minCols.length;
+        int newSize = Math.max(size, oldSize * 2);
+        minCols = Arrays.copyOf(minCols, newSize);
+        minRows = Arrays.copyOf(minRows, newSize);
+        maxCols = Arrays.copyOf(maxCols, newSize);
+        maxRows = Arrays.copyOf(maxRows, newSize);
+        results = Arrays.copyOf(results, newSize);
+        stamps = Arrays.copyOf(stamps, newSize);
+        Arrays.fill(minCols, oldSize, newSize, -1);
+    }
+
+    private int toCol(double x) {
+        return Math.min(cols - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+    }
+
+    private int toRow(double y) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+    }
+}
@@ -0,0 +1,190 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * Pre-rendered layer of sprites that never change, such as walls and rivers.
+ * The sprites are composed once into a single offscreen image covering their
+ * bounding box, which is then drawn with one call per frame. Sprites that can
+ * disappear, such as breakable props, do not belong in a layer and are drawn
+ * individually over it.
+ *
+ * Bagel cannot render into a texture, so the composition is done in memory and
+ * loaded back as a texture through a temporary file. That happens once, on the
+ * first draw, and never inside a later tick. Rendered images are cached
+ * process-wide by their contents, like textures, so rooms rebuilt on restart
+ * reuse them. Nothing is rendered while the RenderQueue is disabled.
+ */
+public class StaticLayer {
+    private static final Map<String, BufferedImage> PIXELS = new HashMap<>();
+    private static final Map<String, Rendered> RENDERED = new HashMap<>();
+
+    private final String name;
+    private final int renderLayer;
+    private final List<Sprite> sprites = new ArrayList<>();
+    private Rendered rendered;
+    private boolean failed = false;
+
+    /**
+     * This constructor creates an empty layer.
+     *
+     * @param name        A short name used for the temporary image file
+     * @param renderLayer The RenderQueue layer the layer is drawn in
+     */
+    public StaticLayer(String name, int renderLayer) {
+        this.name = name;
+        this.renderLayer = renderLayer;
+    }
+
+    /**
+     * This method adds a sprite to the layer. Sprites must all be added before the layer is first drawn.
+     *
+     * @param image The image to draw
+     * @param x     The x-coordinate of the image centre
+     * @param y     The y-coordinate of the image centre
+     */
+    public void add(Texture image, double x, double y) {
+        sprites.add(new Sprite(image, x, y));
+    }
+
+    /**
+     * This method checks whether the layer can be drawn as a single image,
+     * rendering it on the first call.
+     * When it returns false, the caller should draw the sprites individually.
+     *
+     * @return true if the layer is rendered
+     */
+    public boolean isAvailable() {
+        if (!RenderQueue.isEnabled()) return false;
+        if (rendered == null && !failed) render();
+        return !failed;
+    }
+
+    /**
+     * This method draws the layer.
+     */
+    public void draw() {
+        if (!isAvailable() || rendered.image == null) return;
+        RenderQueue.drawFromTopLeft(renderLayer, rendered.image, rendered.left, rendered.top);
+    }
+
+    /**
+     * This method looks up the rendered image of the layer's sprites, composing it on first use.
+     * If a sprite cannot be read the layer gives up and reports itself unavailable.
+     */
+    private void render() {
+        StringBuilder key = new StringBuilder(name);
+        for (Sprite sprite : sprites) {
+            key.append(';').append(sprite.image.getPath()).append(',').append(sprite.x).append(',').append(sprite.y);
+        }
+        try {
+            rendered = lookUp(key.toString(), name, sprites);
+        } catch (IOException e) {
+            System.err.println("Could not render static layer '" + name + "': " + e.getMessage());
+            failed = true;
+        }
+    }
+
+    private static synchronized Rendered lookUp(String key, String name, List<Sprite> sprites) throws IOException {
+        Rendered rendered = RENDERED.get(key);
+        if (rendered == null) {
+            rendered = compose(name, sprites);
+            RENDERED.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * This method composes the sprites into one image and loads it as a texture.
+     *
+     * @param name    The layer's name, used for the temporary image file
+     * @param sprites The sprites to compose
+     * @return The rendered layer, without an image if there are no sprites
+     * @throws IOException if a sprite cannot be read or the image cannot be written
+     */
+    private static Rendered compose(String name, List<Sprite> sprites) throws IOException {
+        if (sprites.isEmpty()) return new Rendered(null, 0, 0);
+
+        double left = Double.MAX_VALUE, top = Double.MAX_VALUE;
+        double right = -Double.MAX_VALUE, bottom = -Double.MAX_VALUE;
+        for (Sprite sprite : sprites) {
+            left = Math.min(left, sprite.x - sprite.image.getWidth() / 2);
+            top = Math.min(top, sprite.y - sprite.image.getHeight() / 2);
+            right = Math.max(right, sprite.x + sprite.image.getWidth() / 2);
+            bottom = Math.max(bottom, sprite.y + sprite.image.getHeight() / 2);
+        }
+        double imageLeft = Math.floor(left);
+        double imageTop = Math.floor(top);
+        int width = (int) Math.ceil(right - imageLeft);
+        int height = (int) Math.ceil(bottom - imageTop);
+
+        BufferedImage canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        for (Sprite sprite : sprites) {
+            BufferedImage pixels = readPixels(sprite.image);
+            graphics.drawImage(pixels,
+                    (int) Math.round(sprite.x - pixels.getWidth() / 2.0 - imageLeft),
+                    (int) Math.round(sprite.y - pixels.getHeight() / 2.0 - imageTop), null);
+        }
+        graphics.dispose();
+
+        File file = File.createTempFile("shadow-dungeon-" + name + "-", ".png");
+        file.deleteOnExit();
+        ImageIO.write(canvas, "png", file);
+        return new Rendered(new Texture(file.getPath()), imageLeft, imageTop);
+    }
+
+    /**
+     * This method returns the decoded pixels of a texture.
+     *
+     * @param image The texture to read
+     * @return The decoded pixels
+     * @throws IOException if the image cannot be read
+     */
+    private static BufferedImage readPixels(Texture image) throws IOException {
+        String path = image.getPath();
+        BufferedImage pixels = PIXELS.get(path);
+        if (pixels == null) {
+            pixels = ImageIO.read(new File(path));
+            if (pixels == null) throw new IOException("unsupported image format: " + path);
+            PIXELS.put(path, pixels);
+        }
+        return pixels;
+    }
+
+    /**
+     * One image placed in the layer.
+     */
+    private static class Sprite {
+        final Texture image;
+        final double x;
+        final double y;
+
+        Sprite(Texture image, double x, double y) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * A composed layer image and where its top-left corner goes.
+     */
+    private static class Rendered {
+        final Texture image;
+        final double left;
+        final double top;
+
+        Rendered(Texture image, double left, double top) {
+            this.image = image;
+            this.left = left;
+            this.top = top;
+        }
+    }
+}
@@ -1,6 +1,4 @@
-import bagel.Input;
 import bagel.Keys;
-import bagel.Image;
 import bagel.util.Point;
 
 /**
@@ -8,12 +6,13 @@ import bagel.util.Point;
  */
 public class Store {
 
-    private static final Image STORE_IMAGE = new Image("res/store.png"); // background for store
-    private static final double WEAPON_UPGRADE_COST = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("weaponPurchase"));
-    private static final double HEALTH_HEAL_COST = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("healthPurchase"));
-    private static final double HEALTH_HEAL_AMOUNT = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("healthBonus"));
+    private static final Texture STORE_IMAGE = TextureRegistry.get("res/store.png"); // background for store
     private static final double MAX_WEAPON_LEVEL = 2;
+    private final World world;
     private final Point position;
+    private final double weaponUpgradeCost;
+    private final double healthHealCost;
+    private final double healthHealAmount;
 
     private boolean visible = false;
     private final Player player;
@@ -21,12 +20,17 @@ public class Store {
     /**
      * Constructor for the store.
      *
+     * @param world    The session the store belongs to
      * @param position The position of the store overlay
      * @param player   Reference to the player object
      */
-    public Store(Point position, Player player) {
+    public Store(World world, Point position, Player player) {
+        this.world = world;
         this.position = position;
         this.player = player;
+        this.weaponUpgradeCost = world.config.weaponPurchase;
+        this.healthHealCost = world.config.healthPurchase;
+        this.healthHealAmount = world.config.healthBonus;
     }
 
     /** Toggle store visibility on/off */
@@ -47,30 +51,30 @@ public class Store {
      *
      * @param input The current mouse/keyboard input
      */
-    public void update(Input input) {
+    public void update(GameInput input) {
         if (!visible) return;
 
         // Upgrade weapon (L key)
-        if (input.wasPressed(Keys.L) && player.getCoins() >= WEAPON_UPGRADE_COST && player.getWeapon().getLevel() != MAX_WEAPON_LEVEL) {
-            player.useCoins(WEAPON_UPGRADE_COST);
+        if (input.wasPressed(Keys.L) && player.getCoins() >= weaponUpgradeCost && player.getWeapon().getLevel() != MAX_WEAPON_LEVEL) {
+            player.useCoins(weaponUpgradeCost);
             player.upgradeWeapon();
         }
 
         // Buy health (E key)
-        if (input.wasPressed(Keys.E) && player.getCoins() >= HEALTH_HEAL_COST) {
-            player.useCoins(HEALTH_HEAL_COST);
-            player.addHealth(HEALTH_HEAL_AMOUNT);
+        if (input.wasPressed(Keys.E) && player.getCoins() >= healthHealCost) {
+            player.useCoins(healthHealCost);
+            player.addHealth(healthHealAmount);
         }
 
         // Restart game (P key)
         if (input.wasPressed(Keys.P)) {
-            ShadowDungeon.resetGameState(ShadowDungeon.getGameProps());
+            world.resetGameState();
         }
     }
 
     /** Draw the store overlay */
     public void draw() {
         if (!visible) return;
-        STORE_IMAGE.draw(position.x, position.y);
+        RenderQueue.draw(RenderQueue.OVERLAY, STORE_IMAGE, position.x, position.y);
     }
 }
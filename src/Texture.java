@@ -0,0 +1,73 @@
+import bagel.Image;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * An image resource whose size is known without a graphics context.
+ * The width and height are read from the file header, and the Bagel Image is
+ * only created the first time the texture is drawn, so game logic that needs
+ * sprite sizes can also run headless.
+ */
+public class Texture {
+    private final String path;
+    private final double width;
+    private final double height;
+    private Image image;
+
+    /**
+     * This constructor reads the size of the image at the given path.
+     *
+     * @param path The path of the image file
+     * @throws IllegalArgumentException if the file cannot be read as an image
+     */
+    public Texture(String path) {
+        this.path = path;
+        try (ImageInputStream stream = ImageIO.createImageInputStream(new File(path))) {
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image file '" + path + "'");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream);
+                this.width = reader.getWidth(0);
+                this.height = reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read image file '" + path + "'", e);
+        }
+    }
+
+    /**
+     * This method returns the Bagel image, loading it on first use.
+     *
+     * @return The Bagel image for this texture
+     */
+    public Image getImage() {
+        if (image == null) {
+            image = new Image(path);
+        }
+        return image;
+    }
+
+    /** @return The path of the image file */
+    public String getPath() {
+        return path;
+    }
+
+    /** @return The width of the image in pixels */
+    public double getWidth() {
+        return width;
+    }
+
+    /** @return The height of the image in pixels */
+    public double getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of loaded textures, keyed by resource path.
+ * Each asset is loaded the first time it is requested and the same Texture is
+ * handed out afterwards, so rooms rebuilt on restart reuse it. The Bagel image
+ * behind a texture is uploaded once, the first time it is drawn.
+ * Lookups are synchronized so sessions built on different threads share it safely.
+ */
+public class TextureRegistry {
+    private static final int BYTES_PER_PIXEL = 4; // RGBA texture
+
+    private static final Map<String, Texture> TEXTURES = new HashMap<>();
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long residentBytes = 0;
+
+    /**
+     * This method returns the texture at the given path, loading it on first use.
+     *
+     * @param path The resource path of the image
+     * @return The shared Texture for that path
+     */
+    public static synchronized Texture get(String path) {
+        Texture texture = TEXTURES.get(path);
+        if (texture != null) {
+            hits++;
+            return texture;
+        }
+
+        misses++;
+        texture = new Texture(path);
+        TEXTURES.put(path, texture);
+        residentBytes += (long) texture.getWidth() * (long) texture.getHeight() * BYTES_PER_PIXEL;
+        return texture;
+    }
+
+    /**
+     * This method returns how many requests were served from the cache.
+     *
+     * @return The number of cache hits
+     */
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * This method returns how many requests had to load a new texture.
+     *
+     * @return The number of cache misses
+     */
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * This method returns the number of distinct textures loaded.
+     *
+     * @return The number of resident textures
+     */
+    public static synchronized int getTextureCount() {
+        return TEXTURES.size();
+    }
+
+    /**
+     * This method estimates the texture memory held by the loaded textures,
+     * assuming four bytes per pixel.
+     *
+     * @return The approximate resident texture memory in bytes
+     */
+    public static synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * This method returns a one-line summary of the registry statistics.
+     *
+     * @return The statistics as a string
+     */
+    public static synchronized String getStats() {
+        return String.format("textures=%d hits=%d misses=%d resident=%.1fKiB",
+                TEXTURES.size(), hits, misses, residentBytes / 1024.0);
+    }
+}
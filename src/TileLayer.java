@@ -0,0 +1,217 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Compact layer of identical static tiles, such as walls or rivers.
+ * Each tile's footprint is stamped into a bitmap of small square cells, so
+ * checking whether a box touches any tile takes a few cell lookups instead
+ * of a loop over every tile. Tiles may overlap, and the number a box touches
+ * is counted from the cells holding their top-left corners.
+ *
+ * In play the tiles are drawn as part of a room's pre-rendered
+ * {@link StaticLayer}. Drawing them here, tile by tile, is only the fallback
+ * for when that layer is unavailable.
+ */
+public class TileLayer {
+    private static final int CHUNK_CELLS = 16;
+
+    private final Texture image;
+    private final int cellSize;
+    private final int cols;
+    private final int rows;
+    private final int tileCols;
+    private final int tileRows;
+    private final BitSet cells;
+    private final int[] anchors;  // Per cell: the number of tiles whose top-left corner is in it
+
+    // Top-left cell of every tile, packed as col/row pairs per chunk
+    private final int chunkCols;
+    private final int[][] chunkTiles;
+    private final int[] chunkSizes;
+    private int size = 0;
+
+    /**
+     * This constructor creates an empty layer covering the given area.
+     *
+     * @param image    The image shared by every tile in the layer
+     * @param cellSize The side length of a cell in pixels
+     * @param width    The width of the covered area
+     * @param height   The height of the covered area
+     */
+    public TileLayer(Texture image, int cellSize, double width, double height) {
+        this.image = image;
+        this.cellSize = cellSize;
+        this.cols = (int) Math.ceil(width / cellSize);
+        this.rows = (int) Math.ceil(height / cellSize);
+        this.tileCols = (int) Math.round(image.getWidth() / cellSize);
+        this.tileRows = (int) Math.round(image.getHeight() / cellSize);
+        this.cells = new BitSet(cols * rows);
+        this.anchors = new int[cols * rows];
+
+        this.chunkCols = (cols + CHUNK_CELLS - 1) / CHUNK_CELLS;
+        int chunkRows = (rows + CHUNK_CELLS - 1) / CHUNK_CELLS;
+        this.chunkTiles = new int[chunkCols * chunkRows][];
+        this.chunkSizes = new int[chunkCols * chunkRows];
+    }
+
+    /**
+     * This method adds a tile centred at the given position.
+     * Only tiles whose edges fall on cell boundaries inside the layer can be stored.
+     *
+     * @param x The x-coordinate of the tile centre
+     * @param y The y-coordinate of the tile centre
+     * @return true if the tile was added, false if it is not grid-aligned
+     */
+    public boolean add(double x, double y) {
+        double left = x - image.getWidth() / 2;
+        double top = y - image.getHeight() / 2;
+        if (tileCols * cellSize != image.getWidth() || tileRows * cellSize != image.getHeight()
+                || left % cellSize != 0 || top % cellSize != 0) {
+            return false;
+        }
+
+        int col = (int) (left / cellSize);
+        int row = (int) (top / cellSize);
+        if (col < 0 || row < 0 || col + tileCols > cols || row + tileRows > rows) {
+            return false;
+        }
+
+        for (int r = row; r < row + tileRows; r++) {
+            cells.set(r * cols + col, r * cols + col + tileCols);
+        }
+        anchors[row * cols + col]++;
+
+        int chunk = (row / CHUNK_CELLS) * chunkCols + col / CHUNK_CELLS;
+        if (chunkTiles[chunk] == null) {
+            chunkTiles[chunk] = new int[8];
+        } else if (chunkSizes[chunk] + 2 > chunkTiles[chunk].length) {
+            chunkTiles[chunk] = Arrays.copyOf(chunkTiles[chunk], chunkTiles[chunk].length * 2);
+        }
+        chunkTiles[chunk][chunkSizes[chunk]++] = col;
+        chunkTiles[chunk][chunkSizes[chunk]++] = row;
+        size++;
+        return true;
+    }
+
+    /**
+     * This method checks whether a box touches any tile in the layer.
+     * Boxes that only share an edge with a tile count as touching it.
+     *
+     * @param left   Left edge of the box
+     * @param top    Top edge of the box
+     * @param right  Right edge of the box
+     * @param bottom Bottom edge of the box
+     * @return true if the box touches a tile
+     */
+    public boolean overlaps(double left, double top, double right, double bottom) {
+        if (size == 0) return false;
+
+        int minCol = Math.max(0, (int) Math.ceil(left / cellSize) - 1);
+        int minRow = Math.max(0, (int) Math.ceil(top / cellSize) - 1);
+        int maxCol = Math.min(cols - 1, (int) Math.floor(right / cellSize));
+        int maxRow = Math.min(rows - 1, (int) Math.floor(bottom / cellSize));
+        if (minCol > maxCol) return false;
+
+        for (int row = minRow; row <= maxRow; row++) {
+            int next = cells.nextSetBit(row * cols + minCol);
+            if (next >= 0 && next <= row * cols + maxCol) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method checks whether the player touches any tile in the layer.
+     *
+     * @param player The player to check
+     * @return true if the player touches a tile
+     */
+    public boolean overlaps(Player player) {
+        double halfWidth = player.getCurrImage().getWidth() / 2;
+        double halfHeight = player.getCurrImage().getHeight() / 2;
+        return overlaps(player.getX() - halfWidth, player.getY() - halfHeight,
+                player.getX() + halfWidth, player.getY() + halfHeight);
+    }
+
+    /**
+     * This method counts the tiles a box touches, each tile counting once where tiles overlap.
+     * Boxes that only share an edge with a tile count as touching it.
+     *
+     * @param left   Left edge of the box
+     * @param top    Top edge of the box
+     * @param right  Right edge of the box
+     * @param bottom Bottom edge of the box
+     * @return The number of tiles the box touches
+     */
+    public int overlapCount(double left, double top, double right, double bottom) {
+        if (size == 0) return 0;
+
+        // A tile touches the box when its top-left cell is at most one tile size before the box
+        int minCol = Math.max(0, (int) Math.ceil(left / cellSize) - tileCols);
+        int minRow = Math.max(0, (int) Math.ceil(top / cellSize) - tileRows);
+        int maxCol = Math.min(cols - 1, (int) Math.floor(right / cellSize));
+        int maxRow = Math.min(rows - 1, (int) Math.floor(bottom / cellSize));
+
+        int count = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                count += anchors[row * cols + col];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * This method counts the tiles the player touches.
+     *
+     * @param player The player to check
+     * @return The number of tiles the player touches
+     */
+    public int overlapCount(Player player) {
+        double halfWidth = player.getCurrImage().getWidth() / 2;
+        double halfHeight = player.getCurrImage().getHeight() / 2;
+        return overlapCount(player.getX() - halfWidth, player.getY() - halfHeight,
+                player.getX() + halfWidth, player.getY() + halfHeight);
+    }
+
+    /**
+     * This method draws every tile, one chunk at a time, skipping empty chunks.
+     * It queues one draw per tile; see the class comment for why that is only a fallback.
+     */
+    public void draw() {
+        double offsetX = image.getWidth() / 2;
+        double offsetY = image.getHeight() / 2;
+        for (int chunk = 0; chunk < chunkTiles.length; chunk++) {
+            int[] tiles = chunkTiles[chunk];
+            for (int i = 0, end = chunkSizes[chunk]; i < end; i += 2) {
+                RenderQueue.draw(RenderQueue.STATIC, image, tiles[i] * cellSize + offsetX, tiles[i + 1] * cellSize + offsetY);
+            }
+        }
+    }
+
+    /**
+     * This method adds every tile to a pre-rendered layer.
+     *
+     * @param layer The layer to add the tiles to
+     */
+    public void addTo(StaticLayer layer) {
+        double offsetX = image.getWidth() / 2;
+        double offsetY = image.getHeight() / 2;
+        for (int chunk = 0; chunk < chunkTiles.length; chunk++) {
+            int[] tiles = chunkTiles[chunk];
+            for (int i = 0, end = chunkSizes[chunk]; i < end; i += 2) {
+                layer.add(image, tiles[i] * cellSize + offsetX, tiles[i + 1] * cellSize + offsetY);
+            }
+        }
+    }
+
+    /**
+     * This method returns the number of tiles in the layer.
+     *
+     * @return The number of tiles
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -1,12 +1,40 @@
 import bagel.Font;
-import bagel.Image;
-import bagel.Window;
 import bagel.util.Point;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Helper class to display information and messages for the player.
+ * Fonts, sprites and layout positions are loaded once, and the stat strings
+ * are only rebuilt when the value they show changes.
  */
 public class UserInterface {
+    private static GameConfig config;
+    private static final Map<Integer, Font> FONTS = new HashMap<>();
+
+    private static final Texture ROBOT_SPRITE = TextureRegistry.get("res/robot_sprite.png");
+    private static final Texture MARINE_SPRITE = TextureRegistry.get("res/marine_sprite.png");
+
+    // Last values shown in the stats panel and the strings built for them
+    private static double shownHealth = Double.NaN;
+    private static double shownCoins = Double.NaN;
+    private static double shownKeys = Double.NaN;
+    private static double shownWeaponLevel = Double.NaN;
+    private static String healthText;
+    private static String coinText;
+    private static String keyText;
+    private static String weaponText;
+
+    /**
+     * Set the configuration holding the messages, fonts and layout to draw with.
+     * The window calls this before anything is drawn.
+     *
+     * @param config The game configuration
+     */
+    public static void setConfig(GameConfig config) {
+        UserInterface.config = config;
+        FONTS.clear();
+    }
 
     /**
      * Draw the player stats on the screen.
@@ -17,39 +45,57 @@ public class UserInterface {
      * @param weaponLevel Player's weapon level
      */
     public static void drawStats(double health, double coins, double keys, double weaponLevel) {
-        int fontSize = Integer.parseInt(ShadowDungeon.getGameProps().getProperty("playerStats.fontSize"));
-        drawData(String.format("%s %.1f", ShadowDungeon.getMessageProps().getProperty("healthDisplay"), health), fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("healthStat")));
-        drawData(String.format("%s %.0f", ShadowDungeon.getMessageProps().getProperty("coinDisplay"), coins), fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("coinStat")));
-        drawData(String.format("%s %.0f", ShadowDungeon.getMessageProps().getProperty("keyDisplay"), keys), fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("keyStat")));
-        drawData(String.format("%s %.0f", ShadowDungeon.getMessageProps().getProperty("weaponDisplay"), weaponLevel), fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("weaponStat")));
+        if (!RenderQueue.isEnabled()) return;
+
+        updateStatsText(health, coins, keys, weaponLevel);
+        drawData(RenderQueue.HUD, healthText, config.statsFontSize, config.healthStat);
+        drawData(RenderQueue.HUD, coinText, config.statsFontSize, config.coinStat);
+        drawData(RenderQueue.HUD, keyText, config.statsFontSize, config.keyStat);
+        drawData(RenderQueue.HUD, weaponText, config.statsFontSize, config.weaponStat);
+    }
+
+    /**
+     * Rebuild the stat strings whose values changed since they were last shown.
+     *
+     * @param health      Player's current health
+     * @param coins       Player's current coins
+     * @param keys        Player's current keys
+     * @param weaponLevel Player's weapon level
+     * @return The health text, the stat most likely to have changed
+     */
+    public static String updateStatsText(double health, double coins, double keys, double weaponLevel) {
+        if (Double.compare(health, shownHealth) != 0) {
+            shownHealth = health;
+            healthText = String.format("%s %.1f", config.healthDisplay, health);
+        }
+        if (Double.compare(coins, shownCoins) != 0) {
+            shownCoins = coins;
+            coinText = String.format("%s %.0f", config.coinDisplay, coins);
+        }
+        if (Double.compare(keys, shownKeys) != 0) {
+            shownKeys = keys;
+            keyText = String.format("%s %.0f", config.keyDisplay, keys);
+        }
+        if (Double.compare(weaponLevel, shownWeaponLevel) != 0) {
+            shownWeaponLevel = weaponLevel;
+            weaponText = String.format("%s %.0f", config.weaponDisplay, weaponLevel);
+        }
+        return healthText;
     }
 
     /**
      * Draw the start screen showing character selection and instructions.
      */
     public static void drawStartScreen() {
-        int charFontSize = Integer.parseInt(ShadowDungeon.getGameProps().getProperty("playerStats.fontSize"));
-        final Image robotSprite = new Image("res/robot_sprite.png");
-        final Image marineSprite = new Image("res/marine_sprite.png");
-        Point robotPosition = IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("Robot"));
-        Point marinePosition = IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("Marine"));
+        if (!RenderQueue.isEnabled()) return;
 
-        drawTextCentered("title", Integer.parseInt(ShadowDungeon.getGameProps().getProperty("title.fontSize")),
-                Double.parseDouble(ShadowDungeon.getGameProps().getProperty("title.y")));
-        drawTextCentered("moveMessage", Integer.parseInt(ShadowDungeon.getGameProps().getProperty("prompt.fontSize")),
-                Double.parseDouble(ShadowDungeon.getGameProps().getProperty("moveMessage.y")));
-        drawTextCentered("selectMessage", Integer.parseInt(ShadowDungeon.getGameProps().getProperty("prompt.fontSize")),
-                Double.parseDouble(ShadowDungeon.getGameProps().getProperty("selectMessage.y")));
-        drawData(String.format("%s", ShadowDungeon.getMessageProps().getProperty("marineDescription")), charFontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("marineMessage")));
-        drawData(String.format("%s", ShadowDungeon.getMessageProps().getProperty("robotDescription")), charFontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("robotMessage")));
-        robotSprite.draw(robotPosition.x, robotPosition.y);
-        marineSprite.draw(marinePosition.x, marinePosition.y);
+        drawTextCentered(RenderQueue.SCREEN, config.title, config.titleFontSize, config.titleY);
+        drawTextCentered(RenderQueue.SCREEN, config.moveMessage, config.promptFontSize, config.moveMessageY);
+        drawTextCentered(RenderQueue.SCREEN, config.selectMessage, config.promptFontSize, config.selectMessageY);
+        drawData(RenderQueue.SCREEN, config.marineDescription, config.statsFontSize, config.marineMessage);
+        drawData(RenderQueue.SCREEN, config.robotDescription, config.statsFontSize, config.robotMessage);
+        RenderQueue.draw(RenderQueue.SCREEN, ROBOT_SPRITE, config.robotSprite.x, config.robotSprite.y);
+        RenderQueue.draw(RenderQueue.SCREEN, MARINE_SPRITE, config.marineSprite.x, config.marineSprite.y);
     }
 
     /**
@@ -58,34 +104,60 @@ public class UserInterface {
      * @param win True if the player won, false if lost
      */
     public static void drawEndMessage(boolean win) {
-        drawTextCentered(win ? "gameEnd.won" : "gameEnd.lost",
-                Integer.parseInt(ShadowDungeon.getGameProps().getProperty("title.fontSize")),
-                Double.parseDouble(ShadowDungeon.getGameProps().getProperty("title.y")));
+        if (!RenderQueue.isEnabled()) return;
+
+        drawTextCentered(RenderQueue.SCREEN, win ? config.gameEndWon : config.gameEndLost, config.titleFontSize, config.titleY);
     }
 
     /**
      * Draw a string centered horizontally at a specific Y coordinate.
      *
-     * @param textPath The property path for the text to display
+     * @param layer    Render layer to draw in
+     * @param text     The text to display
      * @param fontSize Font size
      * @param posY     Vertical position
      */
-    public static void drawTextCentered(String textPath, int fontSize, double posY) {
-        Font font = new Font("res/wheaton.otf", fontSize);
-        String text = ShadowDungeon.getMessageProps().getProperty(textPath);
-        double posX = (Window.getWidth() - font.getWidth(text)) / 2;
-        font.drawString(text, posX, posY);
+    public static void drawTextCentered(int layer, String text, int fontSize, double posY) {
+        Font font = getFont(fontSize);
+        double posX = (config.windowWidth - font.getWidth(text)) / 2;
+        RenderQueue.drawString(layer, font, text, posX, posY);
+    }
+
+    /**
+     * Draw lines of text one below the other.
+     *
+     * @param layer    Render layer to draw in
+     * @param lines    The lines to display
+     * @param fontSize Font size
+     * @param x        Horizontal position of the start of each line
+     * @param y        Baseline of the first line
+     */
+    public static void drawLines(int layer, String[] lines, int fontSize, double x, double y) {
+        Font font = getFont(fontSize);
+        for (int i = 0; i < lines.length; i++) {
+            RenderQueue.drawString(layer, font, lines[i], x, y + i * fontSize * 1.25);
+        }
     }
 
     /**
      * Draw arbitrary data at a specific screen location.
      *
+     * @param layer    Render layer to draw in
      * @param data     Text to draw
      * @param fontSize Font size
      * @param location Screen coordinates
      */
-    public static void drawData(String data, int fontSize, Point location) {
-        Font font = new Font("res/wheaton.otf", fontSize);
-        font.drawString(data, location.x, location.y);
+    public static void drawData(int layer, String data, int fontSize, Point location) {
+        RenderQueue.drawString(layer, getFont(fontSize), data, location.x, location.y);
+    }
+
+    /**
+     * Return the game font at the given size, loading it the first time it is used.
+     *
+     * @param fontSize Font size
+     * @return The cached font
+     */
+    private static Font getFont(int fontSize) {
+        return FONTS.computeIfAbsent(fontSize, size -> new Font(config.fontPath, size));
     }
 }
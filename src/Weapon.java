@@ -1,23 +1,21 @@
 /**
- * Represents the different weapon types available to the player, each with a level and damage value.
+ * Represents the different weapon types available to the player, each with a level.
+ * The damage of each weapon comes from the game configuration.
  */
 public enum Weapon {
-    STANDARD(0, Double.parseDouble(ShadowDungeon.getGameProps().getProperty("weaponStandardDamage"))),
-    ADVANCED(1, Double.parseDouble(ShadowDungeon.getGameProps().getProperty("weaponAdvanceDamage"))),
-    ELITE(2, Double.parseDouble(ShadowDungeon.getGameProps().getProperty("weaponEliteDamage")));
+    STANDARD(0),
+    ADVANCED(1),
+    ELITE(2);
 
     private final int level;
-    private final double damage;
 
     /**
-     * Constructs a Weapon with the given level and damage.
+     * Constructs a Weapon with the given level.
      *
      * @param level  The weapon's upgrade level
-     * @param damage The amount of damage the weapon deals
      */
-    Weapon(int level, double damage) {
+    Weapon(int level) {
         this.level = level;
-        this.damage = damage;
     }
 
     /**
@@ -32,9 +30,14 @@ public enum Weapon {
     /**
      * Returns the weapon's damage value.
      *
+     * @param config The game configuration holding the weapon damages
      * @return The damage of the weapon
      */
-    public double getDamage() {
-        return damage;
+    public double getDamage(GameConfig config) {
+        return switch (this) {
+            case STANDARD -> config.weaponStandardDamage;
+            case ADVANCED -> config.weaponAdvanceDamage;
+            case ELITE -> config.weaponEliteDamage;
+        };
     }
 }
@@ -0,0 +1,207 @@
+import bagel.util.Point;
+
+/**
+ * One play session of the dungeon: the rooms, the player, the store, the live
+ * projectiles and the simulation clock. Nothing in a World is shared with
+ * another, so any number of them can be simulated at the same time on
+ * different threads. Only drawing goes through the process-wide RenderQueue,
+ * which headless runs switch off.
+ */
+public class World {
+    private static final Texture BACKGROUND = TextureRegistry.get("res/background.png");
+
+    public final GameConfig config;
+    public final double screenWidth;
+    public final double screenHeight;
+
+    /** Live bullets and fireballs */
+    public final ProjectileStore projectiles;
+    /** Ticks until the player can fire again */
+    public int bulletCooldown = 0;
+    /** Timers for the phases of each tick, off unless profiling was asked for */
+    public final FrameProfiler profiler = new FrameProfiler();
+
+    private long tick = 0;
+    private Room[] rooms;           // Indexed by id in the config's room graph
+    private int current;            // Id of the room the player is in
+    private EndRoom gameOverRoom;
+    private Player player;
+    private Store store;
+
+    /**
+     * This constructor creates a new session at the start of the game.
+     *
+     * @param config The parsed game configuration
+     */
+    public World(GameConfig config) {
+        this.config = config;
+        this.screenWidth = config.windowWidth;
+        this.screenHeight = config.windowHeight;
+        this.projectiles = new ProjectileStore(config.bulletPoolCapacity, config.fireballPoolCapacity);
+        resetGameState();
+    }
+
+    /**
+     * Resets the game state and initializes all rooms and the player.
+     */
+    public void resetGameState() {
+        GameEvents.GameReset event = new GameEvents.GameReset();
+        event.begin();
+
+        RoomGraph graph = config.rooms;
+        rooms = new Room[graph.size()];
+        for (int room = 0; room < rooms.length; room++) {
+            rooms[room] = switch (graph.getType(room)) {
+                case RoomGraph.PREP -> new PrepRoom(this, room);
+                case RoomGraph.BATTLE -> new BattleRoom(this, room);
+                default -> new EndRoom(this, room);
+            };
+        }
+        for (Room room : rooms) {
+            room.initEntities(config);
+        }
+
+        current = graph.getStartRoom();
+        gameOverRoom = (EndRoom) rooms[graph.getGameOverRoom()];
+
+        player = new Player(this, config.playerStart);
+        store = new Store(this, config.storePosition, player);
+        rooms[current].setPlayer(player);
+        rooms[current].setStore(store);
+        Fireball.clearAll(this);
+        Bullet.clearAll(this);
+
+        if (event.shouldCommit()) {
+            for (Room room : rooms) {
+                event.enemies += room.enemies.size();
+                event.obstacles += room.obstacles.size();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Advance the game by one simulation tick: update the current room and queue its draws.
+     *
+     * @param input The input for this tick
+     */
+    public void step(GameInput input) {
+        long start = profiler.start();
+        tick++;
+        RenderQueue.draw(RenderQueue.BACKGROUND, BACKGROUND, screenWidth / 2.0, screenHeight / 2.0);
+
+        Room room = rooms[current];
+        long fireballsBefore = projectiles.spawnedCount(ProjectileStore.FIREBALL);
+
+        room.update(input);
+
+        int fireballsSpawned = (int) (projectiles.spawnedCount(ProjectileStore.FIREBALL) - fireballsBefore);
+        if (fireballsSpawned >= GameEvents.FIREBALL_BURST) {
+            // Created only for bursts, so quiet ticks allocate nothing even before escape analysis
+            GameEvents.FireballBurst burst = new GameEvents.FireballBurst();
+            burst.room = room.name;
+            burst.tick = tick;
+            burst.fireballsSpawned = fireballsSpawned;
+            burst.commit();
+        }
+        profiler.lap(FrameProfiler.TICK, start);
+    }
+
+    /**
+     * Change the current room and move the player to the door they arrive at.
+     * Rooms and doors are looked up by id, so this costs the same however many rooms there are.
+     *
+     * @param room        The id of the room to switch to
+     * @param arrivalDoor The index of the door in that room the player arrives at
+     */
+    public void changeRoom(int room, int arrivalDoor) {
+        GameEvents.RoomChange event = new GameEvents.RoomChange();
+        event.begin();
+        event.fromRoom = rooms[current].name;
+        event.toRoom = rooms[room].name;
+        event.projectilesCleared = projectiles.size();
+
+        Bullet.clearAll(this);
+        Fireball.clearAll(this);
+
+        Room next = rooms[room];
+        Door nextDoor = next.doors.get(arrivalDoor);
+        if (current != room) rooms[current].stopCurrentUpdateCall();
+        current = room;
+        next.onEnter(nextDoor);
+        nextDoor.unlock(true);
+        player.teleport(nextDoor.getPosition().x, nextDoor.getPosition().y);
+        next.setPlayer(player);
+        next.setStore(store);
+        event.commit();
+    }
+
+    /**
+     * Change the current room as if the player walked in from the room they are in,
+     * arriving at the door that leads back.
+     *
+     * @param room The id of the room to switch to
+     */
+    public void changeRoom(int room) {
+        changeRoom(room, config.rooms.findArrivalDoor(room, current));
+    }
+
+    /**
+     * Changes the current room to the game over room.
+     */
+    public void changeToGameOverRoom() {
+        GameEvents.GameOver event = new GameEvents.GameOver();
+        event.begin();
+        event.room = rooms[current].name;
+        event.tick = tick;
+
+        if (rooms[current] != gameOverRoom) rooms[current].stopCurrentUpdateCall();
+
+        gameOverRoom.isGameOver();
+        current = gameOverRoom.id;
+        Point startPos = config.playerStart;
+        player.teleport(startPos.x, startPos.y);
+        gameOverRoom.setPlayer(player);
+        gameOverRoom.setStore(store);
+        event.commit();
+    }
+
+    /** @return The number of enemies killed in every room */
+    public int getEnemiesKilled() {
+        int killed = 0;
+        for (Room room : rooms) {
+            killed += room.enemies.died();
+        }
+        return killed;
+    }
+
+    /** @return The number of simulation ticks run so far */
+    public long getTick() {
+        return tick;
+    }
+
+    /** @return The player */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * This method looks up a room by id.
+     *
+     * @param room The id of the room in the room graph
+     * @return The room
+     */
+    public Room getRoom(int room) {
+        return rooms[room];
+    }
+
+    /** @return The room the player is in */
+    public Room getCurrentRoom() {
+        return rooms[current];
+    }
+
+    /** @return The name of the room the player is in */
+    public String getCurrentRoomName() {
+        return rooms[current].name;
+    }
+}